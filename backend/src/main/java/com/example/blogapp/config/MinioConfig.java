@@ -1,41 +1,89 @@
 package com.example.blogapp.config;
 
-import io.minio.BucketExistsArgs;
-import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the client makes no network calls; the bucket is checked in the
+ * background by BucketInitializer so startup does not wait for MinIO.
+ */
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
 public class MinioConfig {
 
     @Value("${minio.endpoint}")
     private String endpoint;
 
+    // Where browsers reach MinIO, which may differ from the in-cluster endpoint
+    @Value("${minio.public-endpoint:${minio.endpoint}}")
+    private String publicEndpoint;
+
+    // Fixed so that signing never has to ask the server for its region
+    @Value("${minio.region:us-east-1}")
+    private String region;
+
     @Value("${minio.access-key}")
     private String accessKey;
 
     @Value("${minio.secret-key}")
     private String secretKey;
 
-    @Value("${minio.bucket}")
-    private String bucket;
+    @Value("${minio.http.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${minio.http.keep-alive-ms:300000}")
+    private long keepAliveMs;
+
+    @Value("${minio.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // Applies to each socket read or write, not to the whole transfer
+    @Value("${minio.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${minio.http.write-timeout-ms:30000}")
+    private long writeTimeoutMs;
 
     @Bean
-    public MinioClient minioClient() throws Exception {
-        // Create a MinioClient
-        MinioClient minioClient = MinioClient.builder()
+    @Primary
+    public MinioClient minioClient() {
+        // The SDK default waits up to 5 minutes on a stalled server and keeps
+        // only 5 idle connections, fewer than the request threads using it
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .build();
+
+        return MinioClient.builder()
                 .endpoint(endpoint)
+                .region(region)
                 .credentials(accessKey, secretKey)
+                .httpClient(httpClient)
                 .build();
+    }
 
-        // Check if the bucket exists and create it if it doesn't
-        boolean bucketExists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build());
-        if (!bucketExists) {
-            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
-        }
-
-        return minioClient;
+    /**
+     * Signs URLs that browsers follow. A presigned URL covers the host it was
+     * signed for, so it must be signed for the public endpoint; this client
+     * only signs and never connects.
+     */
+    @Bean
+    public MinioClient presignMinioClient() {
+        return MinioClient.builder()
+                .endpoint(publicEndpoint)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,11 @@ package com.example.blogapp.config;
 
 import com.example.blogapp.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -16,21 +19,62 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
+    // Upload sessions live under the posts but belong to their author
+    private static final String POST_IMAGE_UPLOADS = "/api/posts/*/image/uploads/**";
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
 
+    /**
+     * Lightweight chain for anonymous reads of public content. Requests that
+     * are GETs on /api/posts/** or /api/tags/** and carry no Authorization
+     * header never need a principal, so this chain skips JWT parsing,
+     * anonymous authentication (and its WebAuthenticationDetails allocation),
+     * authorization checks, the request cache and security context persistence.
+     * Image upload sessions under a post are not public. Requests for them or
+     * with a token fall through to {@link #securityFilterChain}.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain publicReadFilterChain(HttpSecurity http) throws Exception {
+        RequestMatcher anonymousPublicRead = new AndRequestMatcher(
+                new OrRequestMatcher(
+                        antMatcher(HttpMethod.GET, "/api/posts/**"),
+                        antMatcher(HttpMethod.GET, "/api/tags/**")),
+                new NegatedRequestMatcher(antMatcher(POST_IMAGE_UPLOADS)),
+                request -> request.getHeader(HttpHeaders.AUTHORIZATION) == null);
+
+        return http
+                .securityMatcher(anonymousPublicRead)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(csrf -> csrf.disable())
+                .anonymous(anonymous -> anonymous.disable())
+                .requestCache(cache -> cache.disable())
+                .logout(logout -> logout.disable())
+                .securityContext(context -> context
+                        .securityContextRepository(new NullSecurityContextRepository()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
     /**
      * Configures the security filter chain for the application.
      * This bean defines the core security configuration including:
@@ -38,8 +82,9 @@ public class SecurityConfig {
      * - CSRF protection is disabled since we're using stateless JWT authentication
      * - URL-based security rules:
      * - /api/auth/** endpoints are publicly accessible (for login/register)
-     * - /health endpoint is publicly accessible
+     * - /health and /health/ready endpoints are publicly accessible
      * - Public read-only blog endpoints
+     * - /api/admin/** endpoints require the ADMIN role
      * - All other endpoints require authentication
      * - Session management is set to STATELESS since we're using JWT tokens
      * - Configures the authentication provider that handles username/password
@@ -47,6 +92,8 @@ public class SecurityConfig {
      * - Adds the JWT authentication filter before the default authentication filter
      * to process JWT tokens before attempting username/password authentication
      */
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -54,15 +101,20 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> {
                     // Public endpoints
                     auth.requestMatchers("/api/auth/**").permitAll();
-                    auth.requestMatchers("/health").permitAll();
+                    auth.requestMatchers("/health", "/health/ready").permitAll();
                     // Public read-only blog endpoints
+                    auth.requestMatchers(HttpMethod.GET, POST_IMAGE_UPLOADS).authenticated();
                     auth.requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "/api/tags/**").permitAll();
+                    auth.requestMatchers(HttpMethod.GET, "/api/avatars/**").permitAll();
                     auth.requestMatchers(HttpMethod.GET, "/api/comments/test-auth").permitAll();
                     // Comment operations - require authentication but explicitly allowed
                     auth.requestMatchers(HttpMethod.POST, "/api/posts/*/comments").authenticated();
                     auth.requestMatchers(HttpMethod.PUT, "/api/comments/**").authenticated();
+                    auth.requestMatchers(HttpMethod.PATCH, "/api/comments/**").authenticated();
                     auth.requestMatchers(HttpMethod.DELETE, "/api/comments/**").authenticated();
+                    // Storage statistics and orphan collection
+                    auth.requestMatchers("/api/admin/**").hasRole("ADMIN");
                     // All other endpoints require authentication
                     auth.anyRequest().authenticated();
                 })
@@ -72,6 +124,18 @@ public class SecurityConfig {
                 .build();
     }
 
+    /**
+     * Keeps the JWT filter out of the servlet container's filter chain. As a
+     * {@code @Component} it would otherwise be registered globally and run for
+     * every request, including those served by {@link #publicReadFilterChain}.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -1,9 +1,11 @@
 package com.example.blogapp.controller;
 
 import com.example.blogapp.dto.auth.AuthResponse;
+import com.example.blogapp.dto.auth.AvailabilityResponse;
 import com.example.blogapp.dto.auth.LoginRequest;
 import com.example.blogapp.dto.auth.RegisterRequest;
 import com.example.blogapp.service.AuthService;
+import com.example.blogapp.service.AvailabilityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
+    private final AvailabilityService availabilityService;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -33,4 +36,11 @@ public class AuthController {
         authService.logout(token);
         return ResponseEntity.ok().build();
     }
+
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(availabilityService.checkAvailability(username, email));
+    }
 }
\ No newline at end of file
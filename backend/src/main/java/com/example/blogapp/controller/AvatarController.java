@@ -0,0 +1,62 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.service.AvatarService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/avatars")
+@RequiredArgsConstructor
+public class AvatarController {
+
+    // A new upload gets a new file name, so a URL always shows the same image
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private final AvatarService avatarService;
+
+    @GetMapping("/{userId}/{fileName}")
+    public ResponseEntity<byte[]> getAvatar(
+            @PathVariable UUID userId,
+            @PathVariable String fileName,
+            @RequestParam(name = "s", required = false) Integer size,
+            ServletWebRequest webRequest) throws Exception {
+        if (size != null && size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than zero");
+        }
+
+        try {
+            return avatarService.getAvatar(userId, fileName, size)
+                    .map(avatar -> {
+                        String eTag = "\"" + avatar.etag() + "\"";
+                        if (webRequest.checkNotModified(eTag)) {
+                            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                    .eTag(eTag)
+                                    .cacheControl(IMMUTABLE)
+                                    .<byte[]>build();
+                        }
+                        return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(avatar.contentType()))
+                                .contentLength(avatar.content().length)
+                                .eTag(eTag)
+                                .cacheControl(IMMUTABLE)
+                                .body(avatar.content());
+                    })
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
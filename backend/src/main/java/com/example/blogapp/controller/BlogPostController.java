@@ -1,13 +1,23 @@
 package com.example.blogapp.controller;
 
 import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.DirectUploadCompleteRequest;
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.dto.UploadSessionDTO;
 import com.example.blogapp.entity.BlogPost;
 import com.example.blogapp.mapper.BlogPostMapper;
 import com.example.blogapp.service.BlogPostService;
+import com.example.blogapp.service.ChunkedUploadService;
+import com.example.blogapp.service.DirectUploadService;
 import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.ImageDerivativeService;
 import com.example.blogapp.service.UserService;
+import com.example.blogapp.storage.StorageTaskExecutor;
 import com.example.blogapp.util.BlogPostStatus;
+import com.example.blogapp.util.MergePatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -16,13 +26,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -33,6 +48,12 @@ public class BlogPostController {
     private final UserService userService;
     private final BlogPostMapper blogPostMapper;
     private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final StorageTaskExecutor storageTaskExecutor;
+
+    @Value("${upload.multi.max-files:10}")
+    private int maxFilesPerUpload;
 
     @GetMapping
     public ResponseEntity<Page<BlogPostDTO>> getAllPosts(
@@ -100,23 +121,31 @@ public class BlogPostController {
     public ResponseEntity<BlogPostDTO> updatePost(
             @PathVariable UUID id,
             @Valid @RequestBody BlogPostDTO postDTO) {
-        return blogPostService.getPostById(id)
-                .map(existingPost -> {
-                    postDTO.setId(id);
-                    BlogPost post = blogPostMapper.toEntity(postDTO);
-                    BlogPost updatedPost = blogPostService.updatePost(post);
-                    return ResponseEntity.ok(blogPostMapper.toDTO(updatedPost));
-                })
-                .orElse(ResponseEntity.notFound().build());
+        return blogPostService.updatePost(id, postDTO)
+                .map(blogPostMapper::toDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * JSON Merge Patch: only the fields in the body are changed, e.g.
+     * {"status": "PUBLISHED"} publishes a post without sending its content.
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<BlogPostDTO> patchPost(
+            @PathVariable UUID id,
+            @RequestBody JsonNode patch) {
+        return blogPostService.patchPost(id, patch)
+                .map(blogPostMapper::toDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable UUID id) {
-        if (blogPostService.getPostById(id).isPresent()) {
-            blogPostService.deletePost(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return blogPostService.deleteIfExists(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/author/{authorId}")
@@ -164,24 +193,124 @@ public class BlogPostController {
     }
 
     @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Map<String, String>> uploadPostImage(
+    public CompletableFuture<ResponseEntity<Map<String, String>>> uploadPostImage(
             @PathVariable UUID id,
             @RequestParam("file") MultipartFile file) {
 
+        if (blogPostService.getPostById(id).isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+
+        return storageTaskExecutor.<ResponseEntity<Map<String, String>>>submit(() -> {
+            // Store the file in MinIO under the posts/{id} path; content that
+            // is already stored is only recognised once the bytes are hashed
+            String imageUrl = fileStorageService.storeFile(file, "posts/" + id);
+            return attachImage(id, imageUrl);
+        }).exceptionally(BlogPostController::storageFailure);
+    }
+
+    /**
+     * Stores several images at once, in parallel. Either all are stored or,
+     * if one fails, the ones already stored are removed again. The post's
+     * own image is left unchanged; the new images are recorded on the post
+     * and released when it is deleted.
+     */
+    @PostMapping(value = "/{id}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<?>> uploadPostImages(
+            @PathVariable UUID id,
+            @RequestParam("files") List<MultipartFile> files) {
+
+        if (files.isEmpty() || files.size() > maxFilesPerUpload) {
+            throw new IllegalArgumentException("Between 1 and " + maxFilesPerUpload + " files can be uploaded at once");
+        }
+        if (blogPostService.getPostById(id).isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+
+        List<CompletableFuture<String>> uploads = files.stream()
+                .map(file -> storageTaskExecutor.submit(() -> fileStorageService.storeFile(file, "posts/" + id)))
+                .toList();
+
+        CompletableFuture<Void> stored = CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new));
+        // Answers as soon as one upload fails instead of after the slowest
+        uploads.forEach(upload -> upload.exceptionally(e -> {
+            stored.completeExceptionally(e);
+            return null;
+        }));
+
+        return stored
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    List<String> imageUrls = uploads.stream().map(CompletableFuture::join).toList();
+                    // Recorded on the post, or the orphan collection would remove them
+                    blogPostService.addImages(id, imageUrls);
+                    imageUrls.forEach(imageUrl -> imageDerivativeService.enqueue(imageUrl.replace("/api/files/", "")));
+                    return ResponseEntity.ok(Map.of("imageUrls", imageUrls));
+                })
+                .exceptionally(e -> {
+                    // Uploads still running when another failed are removed
+                    // once they finish
+                    uploads.forEach(upload -> upload.thenAccept(imageUrl -> storageTaskExecutor.submit(() -> {
+                        fileStorageService.deleteFile(imageUrl);
+                        return null;
+                    })));
+                    return storageFailure(e);
+                });
+    }
+
+    @PostMapping("/{id}/image/uploads")
+    public ResponseEntity<UploadSessionDTO> initImageUpload(
+            @PathVariable UUID id,
+            @Valid @RequestBody UploadInitRequest request) {
         return blogPostService.getPostById(id)
-                .map(post -> {
-                    try {
-                        // Store the file in MinIO under the posts/{id} path
-                        String imageUrl = fileStorageService.storeFile(file, "posts/" + id);
+                .map(post -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(chunkedUploadService.initUpload("posts/" + id, request)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-                        // Update the post with the image URL
-                        post.setImageUrl(imageUrl);
-                        blogPostService.updatePost(post);
+    @GetMapping("/{id}/image/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> getImageUpload(
+            @PathVariable UUID id,
+            @PathVariable UUID uploadId) {
+        return chunkedUploadService.getUpload("posts/" + id, uploadId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-                        Map<String, String> response = new HashMap<>();
-                        response.put("imageUrl", imageUrl);
+    // Raw octet-stream body rather than multipart, so the chunk is streamed
+    // to storage instead of being spooled to a temp file first
+    @PutMapping(value = "/{id}/image/uploads/{uploadId}/parts/{partNumber}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, String>> uploadImagePart(
+            @PathVariable UUID id,
+            @PathVariable UUID uploadId,
+            @PathVariable int partNumber,
+            HttpServletRequest request) {
+        try {
+            boolean stored = chunkedUploadService.uploadPart("posts/" + id, uploadId, partNumber,
+                    request.getInputStream(), request.getContentLengthLong());
+            return stored ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/{id}/image/uploads/{uploadId}/complete")
+    public ResponseEntity<Map<String, String>> completeImageUpload(
+            @PathVariable UUID id,
+            @PathVariable UUID uploadId) {
 
-                        return ResponseEntity.ok(response);
+        return blogPostService.getPostById(id)
+                .map(post -> {
+                    try {
+                        return chunkedUploadService.completeUpload("posts/" + id, uploadId)
+                                .map(imageUrl -> attachImage(id, imageUrl))
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+                    } catch (IllegalArgumentException e) {
+                        throw e;
                     } catch (Exception e) {
                         Map<String, String> errorResponse = new HashMap<>();
                         errorResponse.put("error", e.getMessage());
@@ -191,38 +320,99 @@ public class BlogPostController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/{id}/image/url")
-    public ResponseEntity<Map<String, String>> getPostImageUrl(
+    @DeleteMapping("/{id}/image/uploads/{uploadId}")
+    public ResponseEntity<Void> abortImageUpload(
             @PathVariable UUID id,
-            @RequestParam(defaultValue = "60") int expiryMinutes) {
+            @PathVariable UUID uploadId) {
+        return chunkedUploadService.abortUpload("posts/" + id, uploadId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Issues a presigned form upload so the bytes bypass this service
+    @PostMapping("/{id}/image/direct-uploads")
+    public ResponseEntity<?> createDirectImageUpload(
+            @PathVariable UUID id,
+            @Valid @RequestBody UploadInitRequest request) {
+        Optional<DirectUploadService> directUploads = fileStorageService.directUploads();
+        if (directUploads.isEmpty()) {
+            return directUploadsNotSupported();
+        }
+        if (blogPostService.getPostById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(directUploads.get().createDirectUpload("posts/" + id, request));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/{id}/image/direct-uploads/complete")
+    public ResponseEntity<Map<String, String>> completeDirectImageUpload(
+            @PathVariable UUID id,
+            @Valid @RequestBody DirectUploadCompleteRequest request) {
+        Optional<DirectUploadService> directUploads = fileStorageService.directUploads();
+        if (directUploads.isEmpty()) {
+            return directUploadsNotSupported();
+        }
 
         return blogPostService.getPostById(id)
                 .map(post -> {
                     try {
-                        if (post.getImageUrl() == null || post.getImageUrl().isEmpty()) {
-                            Map<String, String> notFoundResponse = new HashMap<>();
-                            notFoundResponse.put("error", "Image not found");
-                            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFoundResponse);
-                        }
-
-                        // Get a presigned URL for the image
-                        String presignedUrl = fileStorageService.getPresignedUrl(post.getImageUrl(), expiryMinutes);
-
-                        Map<String, String> response = new HashMap<>();
-                        response.put("imageUrl", presignedUrl);
-
-                        return ResponseEntity.ok(response);
+                        return directUploads.get().completeDirectUpload("posts/" + id, request.getObjectName())
+                                .map(imageUrl -> attachImage(id, imageUrl))
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+                    } catch (IllegalArgumentException e) {
+                        throw e;
                     } catch (Exception e) {
                         Map<String, String> errorResponse = new HashMap<>();
                         errorResponse.put("error", e.getMessage());
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
                     }
                 })
-                .orElseGet(() -> {
-                    Map<String, String> notFoundResponse = new HashMap<>();
-                    notFoundResponse.put("error", "Post not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFoundResponse);
-                });
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // The local storage backend has no presigned uploads; clients fall back
+    // to the multipart or chunked upload endpoints
+    private ResponseEntity<Map<String, String>> directUploadsNotSupported() {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Direct uploads are not supported by this storage backend");
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(errorResponse);
+    }
+
+    @GetMapping("/{id}/image/url")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> getPostImageUrl(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "60") int expiryMinutes) {
+
+        Optional<BlogPost> post = blogPostService.getPostById(id);
+        if (post.isEmpty()) {
+            Map<String, String> notFoundResponse = new HashMap<>();
+            notFoundResponse.put("error", "Post not found");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFoundResponse));
+        }
+
+        String imageUrl = post.get().getImageUrl();
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            Map<String, String> notFoundResponse = new HashMap<>();
+            notFoundResponse.put("error", "Image not found");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFoundResponse));
+        }
+
+        return storageTaskExecutor.<ResponseEntity<Map<String, String>>>submit(() -> {
+            // Get a presigned URL for the image
+            String presignedUrl = fileStorageService.getPresignedUrl(imageUrl, expiryMinutes);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("imageUrl", presignedUrl);
+
+            return ResponseEntity.ok(response);
+        }).exceptionally(BlogPostController::storageFailure);
     }
 
     // Admin endpoint to check database status
@@ -256,4 +446,38 @@ public class BlogPostController {
 
         return ResponseEntity.ok(statusReport);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Map<String, String>> attachImage(UUID id, String imageUrl) {
+        // Update the post with the image URL, releasing the one it replaces
+        if (blogPostService.replaceImage(id, imageUrl).isEmpty()) {
+            // Deleted during the upload; the orphan collection removes the file
+            return ResponseEntity.notFound().build();
+        }
+
+        // Resized variants are generated in the background
+        imageDerivativeService.enqueue(imageUrl.replace("/api/files/", ""));
+
+        Map<String, String> response = new HashMap<>();
+        response.put("imageUrl", imageUrl);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Maps a failed storage call to the same responses the synchronous
+     * endpoints give. IllegalArgumentException is rethrown so it still
+     * becomes a 400.
+     */
+    private static ResponseEntity<Map<String, String>> storageFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof IllegalArgumentException illegalArgument) {
+            throw illegalArgument;
+        }
+        Map<String, String> errorResponse = new HashMap<>();
+        if (cause instanceof TimeoutException) {
+            errorResponse.put("error", "Storage did not respond in time");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+        }
+        errorResponse.put("error", cause.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+}
@@ -6,6 +6,8 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.CommentMapper;
 import com.example.blogapp.service.CommentService;
 import com.example.blogapp.service.BlogPostService;
+import com.example.blogapp.util.MergePatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -97,26 +99,27 @@ public class CommentController {
             @PathVariable UUID id,
             @Valid @RequestBody CommentDTO commentDTO) {
 
-        return commentService.getCommentById(id)
-                .map(existingComment -> {
-                    Comment comment = commentMapper.toEntity(commentDTO);
-                    comment.setId(id);
-                    comment.setPost(existingComment.getPost());
-                    comment.setUser(existingComment.getUser());
-                    Comment updatedComment = commentService.updateComment(comment);
-                    return ResponseEntity.ok(commentMapper.toDTO(updatedComment));
-                })
-                .orElse(ResponseEntity.notFound().build());
+        return commentService.updateComment(id, commentDTO)
+                .map(commentMapper::toDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping(value = "/api/comments/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<CommentDTO> patchComment(
+            @PathVariable UUID id,
+            @RequestBody JsonNode patch) {
+        return commentService.patchComment(id, patch)
+                .map(commentMapper::toDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/api/comments/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable UUID id) {
-        return commentService.getCommentById(id)
-                .map(comment -> {
-                    commentService.deleteComment(id);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        return commentService.deleteIfExists(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/api/comments/test-auth")
@@ -1,63 +1,360 @@
 package com.example.blogapp.controller;
 
-import io.minio.GetObjectArgs;
-import io.minio.MinioClient;
+import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.storage.CachedObject;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.ObjectMetadata;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.storage.StorageUnavailableException;
+import com.example.blogapp.util.ObjectNames;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
-    private final MinioClient minioClient;
+    // Request attributes of Tomcat's sendfile support, as used by its DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
-    @Value("${minio.bucket}")
-    private String bucket;
+    // UUID and content-hash names are never overwritten, so browsers and
+    // CDNs may keep them for a year without revalidating
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
 
-    public FileController(MinioClient minioClient) {
-        this.minioClient = minioClient;
-    }
+    private final StorageBackend storageBackend;
+    private final FileStorageService fileStorageService;
+    private final DiskObjectCache diskObjectCache;
+    private final ImageDerivativeService imageDerivativeService;
+
+    // "proxy" streams bytes through this controller, "redirect" sends clients
+    // to a cached presigned URL so the bytes never pass through the JVM
+    @Value("${file.serving-mode:proxy}")
+    private String servingMode;
+
+    // How long browsers may reuse a redirect; the target URL stays valid longer
+    @Value("${file.redirect-max-age-minutes:10}")
+    private int redirectMaxAgeMinutes;
 
-    @GetMapping("/**")
-    public ResponseEntity<Resource> getFile() {
-        // This is a fallback method that will never be called
-        // because the more specific method below will handle all requests
-        return ResponseEntity.notFound().build();
+    public FileController(
+            StorageBackend storageBackend,
+            FileStorageService fileStorageService,
+            DiskObjectCache diskObjectCache,
+            ImageDerivativeService imageDerivativeService) {
+        this.storageBackend = storageBackend;
+        this.fileStorageService = fileStorageService;
+        this.diskObjectCache = diskObjectCache;
+        this.imageDerivativeService = imageDerivativeService;
     }
 
     @GetMapping("/{*objectPath}")
-    public ResponseEntity<Resource> getObjectFromMinio(@PathVariable String objectPath) {
+    public ResponseEntity<StreamingResponseBody> getObjectFromMinio(
+            @PathVariable String objectPath,
+            @RequestParam(name = "w", required = false) Integer width,
+            ServletWebRequest webRequest) {
+        // The catch-all pattern keeps the leading slash
+        String requestedName = objectPath.startsWith("/") ? objectPath.substring(1) : objectPath;
+        String objectName = width == null ? requestedName : resolveVariant(requestedName, width);
+
+        if ("redirect".equals(servingMode)) {
+            return redirectToPresignedUrl(objectName);
+        }
+
+        // Objects already on local disk need no cache in front of them
+        Path localFile = storageBackend.localPath(objectName).orElse(null);
+        CachedObject cached = null;
+        if (localFile == null && diskObjectCache.isCacheable(objectName)) {
+            try {
+                cached = diskObjectCache.getOrFetch(objectName);
+            } catch (IOException e) {
+                return storageError(e);
+            }
+        }
+
+        ObjectMetadata info;
+        RangeWriter writer;
+        Path file;
+        if (cached != null) {
+            CachedObject hit = cached;
+            info = new ObjectMetadata(hit.size(), hit.etag(), hit.lastModified(), hit.contentType());
+            writer = (offset, count, out) -> diskObjectCache.transfer(hit, offset, count, out);
+            file = hit.path();
+        } else {
+            Optional<ObjectMetadata> stat;
+            try {
+                stat = storageBackend.stat(objectName);
+            } catch (IOException e) {
+                return storageError(e);
+            }
+            if (stat.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            info = stat.get();
+            writer = (offset, count, out) -> storageBackend.transfer(objectName, offset, count, out);
+            file = localFile;
+        }
+        boolean fromCache = cached != null;
+
+        long length = info.size();
+        String eTag = "\"" + info.etag() + "\"";
+        long lastModified = info.lastModified();
+        MediaType contentType = resolveContentType(info.contentType(), objectName);
+        // A ?w= request answered with the original may get its variant later,
+        // so only an exact match is immutable
+        CacheControl cacheControl = ObjectNames.isImmutable(objectName)
+                && (width == null || !objectName.equals(requestedName))
+                ? IMMUTABLE
+                : CacheControl.empty();
+
+        // Sets the 304 status and validators on the response when they match
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        String rangeHeader = webRequest.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isRangeApplicable(webRequest.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)) {
+            ResponseEntity.BodyBuilder response = withFileHeaders(
+                    ResponseEntity.ok(), objectName, eTag, lastModified, cacheControl)
+                    .contentType(contentType)
+                    .contentLength(length);
+            if (file != null && trySendfile(webRequest, file, 0, length, fromCache)) {
+                return response.build();
+            }
+            return response.body(out -> writer.write(0, length, out));
+        }
+
+        List<HttpRange> ranges;
         try {
-            // Get the object from MinIO
-            GetObjectArgs getObjectArgs = GetObjectArgs.builder()
-                    .bucket(bucket)
-                    .object(objectPath)
+            ranges = HttpRange.parseRanges(rangeHeader);
+            long requested = 0;
+            for (HttpRange range : ranges) {
+                // A range starting past the end is not clamped, only its end is
+                if (range.getRangeStart(length) >= length) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + rangeHeader);
+                }
+                requested += range.getRangeEnd(length) - range.getRangeStart(length) + 1;
+            }
+            if (ranges.isEmpty() || requested > length) {
+                throw new IllegalArgumentException("Unsatisfiable range: " + rangeHeader);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
                     .build();
+        }
 
-            // Get the object's metadata to determine content type
-            String contentType = determineContentType(objectPath);
+        ResponseEntity.BodyBuilder response = withFileHeaders(
+                ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), objectName, eTag, lastModified, cacheControl);
 
-            // Create a resource from the object's input stream
-            Resource resource = new InputStreamResource(minioClient.getObject(getObjectArgs));
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(length);
+            long end = ranges.get(0).getRangeEnd(length);
+            response.contentType(contentType)
+                    .contentLength(end - start + 1)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            if (file != null && trySendfile(webRequest, file, start, end - start + 1, fromCache)) {
+                return response.build();
+            }
+            return response.body(out -> writer.write(start, end - start + 1, out));
+        }
 
-            // Return the resource with appropriate headers
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + getFilenameFromPath(objectPath) + "\"")
-                    .body(resource);
+        return multipartRangeResponse(response, writer, ranges, length, contentType);
+    }
 
-        } catch (Exception e) {
+    private ResponseEntity.BodyBuilder withFileHeaders(
+            ResponseEntity.BodyBuilder response,
+            String objectName,
+            String eTag,
+            long lastModified,
+            CacheControl cacheControl) {
+        return response
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"" + getFilenameFromPath(objectName) + "\"")
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl);
+    }
+
+    /**
+     * A missing object is a 404. Anything else means storage could not
+     * answer, and a client should retry rather than treat the file as gone;
+     * objects in the disk cache are still served while storage is down.
+     */
+    private static ResponseEntity<StreamingResponseBody> storageError(IOException e) {
+        if (e instanceof NoSuchFileException) {
             return ResponseEntity.notFound().build();
         }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (e instanceof StorageUnavailableException unavailable) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(unavailable.getRetryAfterMillis() + 999));
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.build();
+    }
+
+    /**
+     * Hands a local file to Tomcat's sendfile support, so the connector
+     * copies it to the socket without the bytes entering the JVM. Only
+     * available on connectors that advertise it, e.g. NIO without TLS.
+     */
+    private boolean trySendfile(ServletWebRequest webRequest, Path file, long start, long count, boolean fromCache) {
+        HttpServletRequest request = webRequest.getRequest();
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, start);
+        // The end offset is exclusive
+        request.setAttribute(SENDFILE_END, start + count);
+        if (fromCache) {
+            diskObjectCache.recordSendfile(count);
+        }
+        return true;
+    }
+
+    /**
+     * Picks the image variant for a requested width, falling back to the
+     * original until the variant has been generated or when the original is
+     * narrower than any variant.
+     */
+    private String resolveVariant(String objectName, int width) {
+        return imageDerivativeService.variantFor(objectName, width)
+                .filter(this::objectExists)
+                .orElse(objectName);
+    }
+
+    private boolean objectExists(String objectName) {
+        try {
+            if (storageBackend.localPath(objectName).isPresent() || diskObjectCache.isCached(objectName)) {
+                return true;
+            }
+            // Only the metadata; the bytes are fetched by the request itself
+            return storageBackend.stat(objectName).isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> redirectToPresignedUrl(String objectName) {
+        try {
+            // The cache guarantees the URL outlives the redirect's max-age
+            String url = fileStorageService.getPresignedUrl(objectName, redirectMaxAgeMinutes);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(url))
+                    .cacheControl(CacheControl.maxAge(redirectMaxAgeMinutes, TimeUnit.MINUTES).cachePrivate())
+                    .build();
+        } catch (Exception e) {
+            // Signing does not look the object up, so storage itself answers
+            // a missing object after the redirect; failing to sign is not a 404
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return storageError(cause instanceof IOException ioException ? ioException : new IOException(e));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> multipartRangeResponse(
+            ResponseEntity.BodyBuilder response,
+            RangeWriter writer,
+            List<HttpRange> ranges,
+            long length,
+            MediaType contentType) {
+        String boundary = new String(MimeTypeUtils.generateMultipartBoundary(), StandardCharsets.US_ASCII);
+
+        // Pre-render the part headers so the exact Content-Length is known up front
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (end - start + 1);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        return response
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .contentLength(contentLength)
+                .body(out -> {
+                    for (int i = 0; i < ranges.size(); i++) {
+                        long start = ranges.get(i).getRangeStart(length);
+                        long end = ranges.get(i).getRangeEnd(length);
+                        out.write(partHeaders.get(i));
+                        writer.write(start, end - start + 1, out);
+                    }
+                    out.write(closing);
+                });
+    }
+
+    /**
+     * A Range request is only honoured if If-Range is absent or still matches
+     * the current representation; otherwise the full object is sent.
+     */
+    private boolean isRangeApplicable(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            // HTTP dates have second precision
+            return lastModified / 1000 <= since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private MediaType resolveContentType(String storedContentType, String objectName) {
+        if (storedContentType != null && !storedContentType.isEmpty()
+                && !MediaType.APPLICATION_OCTET_STREAM_VALUE.equals(storedContentType)) {
+            try {
+                return MediaType.parseMediaType(storedContentType);
+            } catch (IllegalArgumentException e) {
+                // Fall back to the file extension below
+            }
+        }
+        return MediaType.parseMediaType(determineContentType(objectName));
     }
 
     private String getFilenameFromPath(String path) {
@@ -81,4 +378,9 @@ public class FileController {
             return "application/octet-stream";
         }
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    private interface RangeWriter {
+        void write(long offset, long length, OutputStream out) throws IOException;
+    }
+}
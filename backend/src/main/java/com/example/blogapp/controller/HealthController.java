@@ -1,14 +1,35 @@
 package com.example.blogapp.controller;
 
+import com.example.blogapp.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final StorageBackend storageBackend;
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("OK");
     }
-}
\ No newline at end of file
+
+    /**
+     * Readiness, reported apart from liveness: the application is up before
+     * object storage is, and keeps serving what it can while it is not.
+     */
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, String>> ready() {
+        boolean storageReady = storageBackend.isReady();
+        Map<String, String> body = Map.of(
+                "status", storageReady ? "UP" : "DOWN",
+                "storage", storageReady ? "UP" : "DOWN");
+        return ResponseEntity.status(storageReady ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+}
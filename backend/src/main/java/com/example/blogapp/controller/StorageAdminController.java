@@ -0,0 +1,87 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.dto.OrphanCollectionReport;
+import com.example.blogapp.service.AvatarService;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.service.OrphanFileCollectionService;
+import com.example.blogapp.storage.BucketInitializer;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.StorageGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/admin/storage")
+@RequiredArgsConstructor
+public class StorageAdminController {
+
+    private final DiskObjectCache diskObjectCache;
+    private final ImageDerivativeService imageDerivativeService;
+    private final OrphanFileCollectionService orphanFileCollectionService;
+    private final AvatarService avatarService;
+
+    // Absent with storage.backend=local
+    private final Optional<BucketInitializer> bucketInitializer;
+    private final Optional<StorageGuard> storageGuard;
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(diskObjectCache.getStats());
+    }
+
+    @GetMapping("/derivatives")
+    public ResponseEntity<Map<String, Object>> getDerivativeStats() {
+        return ResponseEntity.ok(imageDerivativeService.getStats());
+    }
+
+    @GetMapping("/avatars")
+    public ResponseEntity<Map<String, Object>> getAvatarCacheStats() {
+        return ResponseEntity.ok(avatarService.getStats());
+    }
+
+    @GetMapping("/bucket")
+    public ResponseEntity<Map<String, Object>> getBucketStatus() {
+        return bucketInitializer
+                .map(BucketInitializer::getStats)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Circuit breaker state, bulkhead rejections and call latency histograms.
+     */
+    @GetMapping("/circuit")
+    public ResponseEntity<Map<String, Object>> getCircuitStats() {
+        return storageGuard
+                .map(StorageGuard::getStats)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/orphans")
+    public ResponseEntity<OrphanCollectionReport> getLastOrphanCollection() {
+        return orphanFileCollectionService.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Runs a collection now. Defaults to a dry run that only reports.
+     */
+    @PostMapping("/orphans/collect")
+    public ResponseEntity<OrphanCollectionReport> collectOrphans(
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return orphanFileCollectionService.collect(dryRun)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
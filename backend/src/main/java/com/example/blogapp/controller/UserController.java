@@ -4,12 +4,20 @@ import com.example.blogapp.dto.PasswordUpdateRequest;
 import com.example.blogapp.dto.UserDTO;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.UserMapper;
+import com.example.blogapp.service.AvatarService;
 import com.example.blogapp.service.UserService;
+import com.example.blogapp.storage.StorageTaskExecutor;
+import com.example.blogapp.util.MergePatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -17,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
+    private final AvatarService avatarService;
+    private final StorageTaskExecutor storageTaskExecutor;
 
     @GetMapping("/profile")
     public ResponseEntity<UserDTO> getProfile(@AuthenticationPrincipal User user) {
@@ -37,6 +47,34 @@ public class UserController {
         return ResponseEntity.ok(userMapper.toDTO(updatedUser));
     }
 
+    /**
+     * JSON Merge Patch of fullName and bio; fields not in the body keep
+     * their value, null clears them. The avatar is changed by uploading one.
+     */
+    @PatchMapping(value = "/profile", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<UserDTO> patchProfile(
+            @AuthenticationPrincipal User user,
+            @RequestBody JsonNode patch) {
+        return userService.patchProfile(user.getId(), patch)
+                .map(userMapper::toDTO)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replaces the avatar with an uploaded image, which is cropped to a
+     * square and stored at the configured avatar sizes.
+     */
+    @PostMapping(value = "/profile/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<UserDTO>> uploadAvatar(
+            @AuthenticationPrincipal User user,
+            @RequestParam("file") MultipartFile file) {
+        return storageTaskExecutor.submit(() -> {
+            User updatedUser = avatarService.updateAvatar(user, file);
+            return ResponseEntity.ok(userMapper.toDTO(updatedUser));
+        });
+    }
+
     @PutMapping("/password")
     public ResponseEntity<Void> updatePassword(
             @AuthenticationPrincipal User user,
@@ -45,4 +45,7 @@ public class BlogPostDTO {
 
     @NotNull(message = "Author is required")
     private UserDTO author;
+
+    // Version the client last read; an update based on an older one is rejected
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package com.example.blogapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadCompleteRequest {
+    @NotBlank(message = "Object name is required")
+    private String objectName;
+}
@@ -0,0 +1,24 @@
+package com.example.blogapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A presigned form upload: the browser POSTs the fields plus a "file" part
+ * as multipart/form-data to the URL, directly to object storage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadDTO {
+    private String url;
+    private Map<String, String> fields;
+    private String objectName;
+    private Instant expiresAt;
+}
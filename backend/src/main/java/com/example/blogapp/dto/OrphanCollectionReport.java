@@ -0,0 +1,27 @@
+package com.example.blogapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrphanCollectionReport {
+    private boolean dryRun;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long referencedFiles;
+    private long scannedObjects;
+    // Too young to judge, their reference may not be saved yet
+    private long skippedRecent;
+    private long orphanedObjects;
+    private long orphanedBytes;
+    private long deletedObjects;
+    private List<String> sampleOrphans;
+}
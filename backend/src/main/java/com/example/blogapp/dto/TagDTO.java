@@ -6,7 +6,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.Set;
 import java.util.UUID;
 
 @Data
@@ -21,5 +20,4 @@ public class TagDTO {
     private String name;
 
     private String slug;
-    private Set<BlogPostDTO> posts;
 }
@@ -0,0 +1,22 @@
+package com.example.blogapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadInitRequest {
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @Positive(message = "Size must be greater than zero")
+    private long size;
+}
@@ -0,0 +1,24 @@
+package com.example.blogapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private UUID id;
+    private String contentType;
+    private long size;
+    private long chunkSize;
+    private int partCount;
+
+    // Part numbers already stored, so an interrupted client can resume
+    private List<Integer> receivedParts;
+}
@@ -0,0 +1,12 @@
+package com.example.blogapp.dto.auth;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AvailabilityResponse {
+    // Null when the corresponding value was not part of the request
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
@@ -3,6 +3,8 @@ package com.example.blogapp.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -17,9 +19,11 @@ import com.example.blogapp.util.BlogPostStatus;
 @EqualsAndHashCode(callSuper = true)
 @Entity(name = "blog_post")
 @Table(name = "blog_posts")
+// Updates write only the changed columns, so a patch of the title does not rewrite the content
+@DynamicUpdate
 public class BlogPost extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
     @Column(nullable = false)
@@ -30,9 +34,14 @@ public class BlogPost extends BaseEntity {
 
     private String description;
 
-    @Column(columnDefinition = "CLOB")
+    @Column(columnDefinition = "text")
     private String content;
 
+    // SHA-256 of content; derived fields are only recomputed when it changes
+    @Column(name = "content_hash", length = 64)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String contentHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
@@ -51,6 +60,11 @@ public class BlogPost extends BaseEntity {
     @Column(name = "image_url")
     private String imageUrl;
 
+    @Version
+    private Long version;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany
     @JoinTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     private Set<Tag> tags = new HashSet<>();
@@ -0,0 +1,43 @@
+package com.example.blogapp.entity;
+
+import com.example.blogapp.util.ImageDerivativeJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "image_derivative_jobs")
+public class ImageDerivativeJob extends BaseEntity {
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Column(name = "source_object", nullable = false)
+    private String sourceObject;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ImageDerivativeJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    // Identifies the claim, not the instance, so a worker whose lease ran
+    // out can not finish a job that has been claimed again since
+    @Column(name = "claimed_by")
+    private UUID claimedBy;
+
+    @Column(name = "claimed_at")
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    private LocalDateTime claimedAt;
+}
@@ -0,0 +1,34 @@
+package com.example.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * A content-addressed object in MinIO. Every upload with the same SHA-256
+ * shares the object and bumps the reference count instead of storing a copy.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "stored_files")
+public class StoredFile extends BaseEntity {
+    @Id
+    @Column(length = 64)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String sha256;
+
+    @Column(name = "object_name", nullable = false, unique = true)
+    private String objectName;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+}
@@ -2,6 +2,8 @@ package com.example.blogapp.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -11,7 +13,7 @@ import java.util.UUID;
 @Table(name = "tags")
 public class Tag {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -20,6 +22,9 @@ public class Tag {
     @Column(nullable = false, unique = true)
     private String slug;
 
+    // Hashing a tag must not load every post carrying it
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "tags")
     private Set<BlogPost> posts = new HashSet<>();
 }
\ No newline at end of file
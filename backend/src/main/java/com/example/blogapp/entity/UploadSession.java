@@ -0,0 +1,32 @@
+package com.example.blogapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.UUID;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession extends BaseEntity {
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private long chunkSize;
+
+    @Column(name = "part_count", nullable = false)
+    private int partCount;
+}
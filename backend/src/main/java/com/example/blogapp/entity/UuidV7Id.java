@@ -0,0 +1,18 @@
+package com.example.blogapp.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key that is assigned a time-ordered version 7 UUID
+ * when the entity is persisted.
+ */
+@IdGeneratorType(UuidV7IdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface UuidV7Id {
+}
@@ -1,21 +1,70 @@
 package com.example.blogapp.mapper;
 
 import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.TagDTO;
 import com.example.blogapp.entity.BlogPost;
+import com.example.blogapp.entity.Tag;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class BlogPostMapper {
-    private final ModelMapper mapper;
+    private final TagMapper tagMapper;
+    private final UserMapper userMapper;
 
     public BlogPostDTO toDTO(BlogPost post) {
-        return mapper.map(post, BlogPostDTO.class);
+        return BlogPostDTO.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .slug(post.getSlug())
+                .description(post.getDescription())
+                .content(post.getContent())
+                .status(post.getStatus())
+                .postDate(post.getPostDate())
+                .readTime(post.getReadTime())
+                .imageUrl(post.getImageUrl())
+                .author(post.getAuthor() != null ? userMapper.toDTO(post.getAuthor()) : null)
+                .tags(toTagDTOs(post.getTags()))
+                .version(post.getVersion())
+                .build();
     }
 
     public BlogPost toEntity(BlogPostDTO dto) {
-        return mapper.map(dto, BlogPost.class);
+        BlogPost post = new BlogPost();
+        post.setId(dto.getId());
+        post.setTitle(dto.getTitle());
+        post.setSlug(dto.getSlug());
+        post.setDescription(dto.getDescription());
+        post.setContent(dto.getContent());
+        post.setStatus(dto.getStatus());
+        post.setPostDate(dto.getPostDate());
+        post.setReadTime(dto.getReadTime());
+        post.setImageUrl(dto.getImageUrl());
+        if (dto.getAuthor() != null) {
+            post.setAuthor(userMapper.toEntity(dto.getAuthor()));
+        }
+        if (dto.getTags() != null) {
+            Set<Tag> tags = new HashSet<>(dto.getTags().size() * 2);
+            for (TagDTO tagDTO : dto.getTags()) {
+                tags.add(tagMapper.toEntity(tagDTO));
+            }
+            post.setTags(tags);
+        }
+        return post;
+    }
+
+    private Set<TagDTO> toTagDTOs(Set<Tag> tags) {
+        if (tags == null) {
+            return null;
+        }
+        Set<TagDTO> dtos = new HashSet<>(tags.size() * 2);
+        for (Tag tag : tags) {
+            dtos.add(tagMapper.toDTO(tag));
+        }
+        return dtos;
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,6 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.repository.BlogPostRepository;
 import com.example.blogapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -15,20 +14,21 @@ import java.util.Optional;
 @Component
 @RequiredArgsConstructor
 public class CommentMapper {
-    private final ModelMapper mapper;
     private final UserMapper userMapper;
     private final BlogPostRepository blogPostRepository;
     private final UserRepository userRepository;
 
     public CommentDTO toDTO(Comment comment) {
-        CommentDTO dto = mapper.map(comment, CommentDTO.class);
-        if (comment.getUser() != null) {
-            dto.setAuthor(userMapper.toDTO(comment.getUser()));
-        }
-        if (comment.getPost() != null) {
-            dto.setPostId(comment.getPost().getId());
-        }
-        return dto;
+        return CommentDTO.builder()
+                .id(comment.getId())
+                .content(comment.getContent())
+                .author(comment.getUser() != null ? userMapper.toDTO(comment.getUser()) : null)
+                // Reading the id of a lazy proxy does not initialize it
+                .postId(comment.getPost() != null ? comment.getPost().getId() : null)
+                .createdAt(comment.getCreatedAt())
+                .updatedAt(comment.getUpdatedAt())
+                .version(comment.getVersion())
+                .build();
     }
 
     public Comment toEntity(CommentDTO dto) {
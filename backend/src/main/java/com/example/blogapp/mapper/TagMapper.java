@@ -2,20 +2,26 @@ package com.example.blogapp.mapper;
 
 import com.example.blogapp.dto.TagDTO;
 import com.example.blogapp.entity.Tag;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 public class TagMapper {
-    private final ModelMapper mapper;
 
     public TagDTO toDTO(Tag tag) {
-        return mapper.map(tag, TagDTO.class);
+        // Deliberately does not touch tag.posts: it is a lazy association and
+        // mapping it would recurse through every post carrying the tag
+        return TagDTO.builder()
+                .id(tag.getId())
+                .name(tag.getName())
+                .slug(tag.getSlug())
+                .build();
     }
 
     public Tag toEntity(TagDTO dto) {
-        return mapper.map(dto, Tag.class);
+        Tag tag = new Tag();
+        tag.setId(dto.getId());
+        tag.setName(dto.getName());
+        tag.setSlug(dto.getSlug());
+        return tag;
     }
-}
\ No newline at end of file
+}
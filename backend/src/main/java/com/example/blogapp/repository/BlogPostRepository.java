@@ -5,28 +5,95 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.util.BlogPostStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Queries whose results are mapped to DTOs fetch the author, and the tags
+ * where no paging is involved, with an entity graph. Open-in-view is off, so
+ * whatever BlogPostMapper reads must be loaded before the transaction ends;
+ * tags of a page are batch fetched by the service instead, since a
+ * collection fetch join would make Hibernate page in memory.
+ */
 public interface BlogPostRepository extends JpaRepository<BlogPost, UUID> {
+    @Override
+    @EntityGraph(attributePaths = { "author", "tags" })
+    Optional<BlogPost> findById(UUID id);
+
+    @EntityGraph(attributePaths = { "author", "tags" })
     List<BlogPost> findByAuthorOrderByPostDateDesc(User author);
 
+    @EntityGraph(attributePaths = { "author", "tags" })
     Optional<BlogPost> findBySlug(String slug);
 
+    @EntityGraph(attributePaths = { "author", "tags" })
     List<BlogPost> findByStatusOrderByPostDateDesc(BlogPostStatus status);
 
+    @EntityGraph(attributePaths = "author")
     Page<BlogPost> findByStatus(BlogPostStatus status, Pageable pageable);
 
     boolean existsBySlug(String slug);
 
+    /**
+     * @return The post's image URL, as a list so that a post without an
+     * image and a missing post both give an empty result
+     */
+    @Query("SELECT p.imageUrl FROM blog_post p WHERE p.id = :id AND p.imageUrl IS NOT NULL")
+    List<String> findImageUrlsById(@Param("id") UUID id);
+
+    /**
+     * Records an image uploaded for the post besides its cover image. Every
+     * upload gets its own row, since each one holds a file reference.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_images (id, post_id, image_url) VALUES (:id, :postId, :imageUrl)",
+            nativeQuery = true)
+    int insertImage(@Param("id") UUID id, @Param("postId") UUID postId, @Param("imageUrl") String imageUrl);
+
+    @Query(value = "SELECT image_url FROM post_images WHERE post_id = :id", nativeQuery = true)
+    List<String> findUploadedImageUrlsById(@Param("id") UUID id);
+
+    /**
+     * Deletes without loading the post first. Tag links, comments and
+     * uploaded images are removed by ON DELETE CASCADE.
+     *
+     * @return The number of deleted rows, 0 or 1
+     */
+    @Modifying
+    @Query(value = "DELETE FROM blog_posts WHERE id = :id", nativeQuery = true)
+    int deleteRowById(@Param("id") UUID id);
+
     @Query("SELECT p FROM blog_post p WHERE " +
             "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
             "AND p.status = :status")
+    @EntityGraph(attributePaths = "author")
     Page<BlogPost> searchPosts(@Param("query") String query, @Param("status") BlogPostStatus status, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Streams every image URL with a server-side cursor. Must be consumed
+     * inside a transaction.
+     */
+    @Query("SELECT p.imageUrl FROM blog_post p WHERE p.imageUrl IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamImageUrls();
+
+    /**
+     * Streams the URL of every image uploaded for a post with a server-side
+     * cursor. Must be consumed inside a transaction.
+     */
+    @Query(value = "SELECT image_url FROM post_images", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamUploadedImageUrls();
+}
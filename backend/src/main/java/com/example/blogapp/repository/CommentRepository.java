@@ -4,14 +4,33 @@ import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.BlogPost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Comment> findById(UUID id);
+
+    @EntityGraph(attributePaths = "user")
     List<Comment> findByPostOrderByCreatedAtDesc(BlogPost post);
 
     long countByPost(BlogPost post);
 
+    // The comment author is mapped into every DTO; the post only by id
+    @EntityGraph(attributePaths = "user")
     Page<Comment> findByPost(BlogPost post, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * @return The number of deleted rows, 0 or 1
+     */
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id = :id", nativeQuery = true)
+    int deleteRowById(@Param("id") UUID id);
+}
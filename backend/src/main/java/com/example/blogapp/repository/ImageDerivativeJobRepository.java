@@ -0,0 +1,59 @@
+package com.example.blogapp.repository;
+
+import com.example.blogapp.entity.ImageDerivativeJob;
+import com.example.blogapp.util.ImageDerivativeJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ImageDerivativeJobRepository extends JpaRepository<ImageDerivativeJob, UUID> {
+    List<ImageDerivativeJob> findByStatusOrderByCreatedAtAsc(ImageDerivativeJobStatus status, Pageable pageable);
+
+    long countByStatus(ImageDerivativeJobStatus status);
+
+    boolean existsBySourceObjectAndStatusNot(String sourceObject, ImageDerivativeJobStatus status);
+
+    /**
+     * Moves a PENDING job to PROCESSING under the given claim. The status
+     * check and the update are one statement, so of several workers racing
+     * for a job exactly one gets 1 back.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageDerivativeJob j SET j.status = com.example.blogapp.util.ImageDerivativeJobStatus.PROCESSING, " +
+            "j.attempts = j.attempts + 1, j.claimedBy = :claim, j.claimedAt = :now, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.example.blogapp.util.ImageDerivativeJobStatus.PENDING")
+    int claim(@Param("id") UUID id, @Param("claim") UUID claim, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the outcome of a job and releases the claim, unless the claim
+     * has expired and been taken over in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageDerivativeJob j SET j.status = :status, j.lastError = :error, " +
+            "j.claimedBy = NULL, j.claimedAt = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.claimedBy = :claim")
+    int finish(@Param("id") UUID id, @Param("claim") UUID claim, @Param("status") ImageDerivativeJobStatus status,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /**
+     * Returns jobs whose claim is older than the cutoff to PENDING, i.e.
+     * those of workers that died or hung. Claims made before claims were
+     * recorded have no claimed_at and count as expired.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageDerivativeJob j SET j.status = com.example.blogapp.util.ImageDerivativeJobStatus.PENDING, " +
+            "j.claimedBy = NULL, j.claimedAt = NULL " +
+            "WHERE j.status = com.example.blogapp.util.ImageDerivativeJobStatus.PROCESSING " +
+            "AND (j.claimedAt IS NULL OR j.claimedAt < :cutoff)")
+    int releaseExpiredClaims(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,67 @@
+package com.example.blogapp.repository;
+
+import com.example.blogapp.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reference counts are changed with single UPDATE statements so concurrent
+ * uploads and deletes of the same content never lose an increment.
+ */
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * @return 1 if the row was inserted, 0 if another upload of the same content won the race
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stored_files (sha256, object_name, size, content_type, reference_count, created_at, updated_at) "
+            + "VALUES (:sha256, :objectName, :size, :contentType, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256, @Param("objectName") String objectName,
+            @Param("size") long size, @Param("contentType") String contentType);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile f SET f.referenceCount = f.referenceCount + 1, f.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE f.sha256 = :sha256")
+    int incrementReferences(@Param("sha256") String sha256);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile f SET f.referenceCount = f.referenceCount - 1, f.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE f.objectName = :objectName AND f.referenceCount > 0")
+    int decrementReferences(@Param("objectName") String objectName);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredFile f WHERE f.objectName = :objectName AND f.referenceCount = 0")
+    int deleteUnreferenced(@Param("objectName") String objectName);
+
+    /**
+     * Content reused since the cutoff may be about to be referenced by a
+     * post that is not saved yet.
+     */
+    @Query("SELECT f.objectName FROM StoredFile f WHERE f.updatedAt >= :since")
+    List<String> findObjectNamesUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Forgets orphaned content so it is no longer offered for deduplication,
+     * unless it was reused after the cutoff.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredFile f WHERE f.objectName IN :objectNames AND f.updatedAt < :before")
+    int deleteByObjectNameInAndUpdatedAtBefore(
+            @Param("objectNames") Collection<String> objectNames, @Param("before") LocalDateTime before);
+
+    @Query("SELECT f.objectName FROM StoredFile f WHERE f.objectName IN :objectNames")
+    List<String> findObjectNamesIn(@Param("objectNames") Collection<String> objectNames);
+}
@@ -0,0 +1,12 @@
+package com.example.blogapp.repository;
+
+import com.example.blogapp.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+    List<UploadSession> findByCreatedAtBefore(LocalDateTime cutoff);
+}
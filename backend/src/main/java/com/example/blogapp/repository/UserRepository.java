@@ -2,15 +2,60 @@ package com.example.blogapp.repository;
 
 import com.example.blogapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username);
 
+    /**
+     * Resolves a login identifier with a single query served by the
+     * lower(username) and lower(email) functional indexes. A username match
+     * wins over an email match.
+     */
+    @Query(value = "SELECT * FROM users WHERE lower(username) = lower(:login) OR lower(email) = lower(:login) " +
+            "ORDER BY (lower(username) = lower(:login)) DESC LIMIT 1", nativeQuery = true)
+    Optional<User> findByUsernameOrEmailIgnoreCase(@Param("login") String usernameOrEmail);
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.username) = lower(:username)")
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Streams every username in lowercase with a server-side cursor. Must be
+     * consumed inside a transaction.
+     */
+    @Query("SELECT lower(u.username) FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamUsernamesLowercase();
+
+    /**
+     * Streams every email in lowercase with a server-side cursor. Must be
+     * consumed inside a transaction.
+     */
+    @Query("SELECT lower(u.email) FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamEmailsLowercase();
+
+    /**
+     * Streams every avatar URL with a server-side cursor. Must be consumed
+     * inside a transaction.
+     */
+    @Query("SELECT u.avatarUrl FROM User u WHERE u.avatarUrl IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAvatarUrls();
 }
\ No newline at end of file
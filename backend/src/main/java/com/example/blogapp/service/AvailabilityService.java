@@ -0,0 +1,27 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.auth.AvailabilityResponse;
+
+public interface AvailabilityService {
+    /**
+     * Checks whether a username and/or email can still be registered
+     *
+     * @param username The username to check, may be null
+     * @param email    The email to check, may be null
+     * @return Availability of each supplied value
+     */
+    AvailabilityResponse checkAvailability(String username, String email);
+
+    /**
+     * Records a newly registered username and email as taken
+     *
+     * @param username The registered username
+     * @param email    The registered email
+     */
+    void markTaken(String username, String email);
+
+    /**
+     * Rebuilds the availability index from the users table
+     */
+    void rebuild();
+}
@@ -0,0 +1,39 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.entity.User;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AvatarService {
+
+    /**
+     * A normalized avatar rendition, small enough to be held in memory.
+     */
+    record AvatarImage(byte[] content, String etag, String contentType) {
+    }
+
+    /**
+     * Crops an uploaded image to a square, renders it at each configured
+     * size, stores the renditions and points the user's avatar URL at them.
+     *
+     * @return The user with the new avatar URL
+     * @throws IllegalArgumentException If the file is not a decodable image
+     */
+    User updateAvatar(User user, MultipartFile file) throws Exception;
+
+    /**
+     * @param fileName The file name from the avatar URL
+     * @param size     The requested edge length in pixels, or null for the largest
+     * @return The smallest rendition at least that large, or empty if the
+     * avatar does not exist
+     */
+    Optional<AvatarImage> getAvatar(UUID userId, String fileName, Integer size) throws Exception;
+
+    /**
+     * @return Size and hit rate of the in-memory avatar cache
+     */
+    Map<String, Object> getStats();
+}
@@ -1,8 +1,10 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.BlogPostDTO;
 import com.example.blogapp.entity.BlogPost;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.util.BlogPostStatus;
+import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,7 +16,54 @@ public interface BlogPostService {
 
     BlogPost updatePost(BlogPost post);
 
-    void deletePost(UUID id);
+    /**
+     * Sets the post's image and, once that is committed, releases the file
+     * of the image it replaces
+     *
+     * @return The saved post, or empty if the post no longer exists
+     */
+    Optional<BlogPost> replaceImage(UUID id, String imageUrl);
+
+    /**
+     * Records images uploaded for the post besides its cover image, so they
+     * are kept for as long as the post exists
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException If the
+     * post no longer exists
+     */
+    void addImages(UUID postId, List<String> imageUrls);
+
+    /**
+     * Applies an edit to the stored post in a single transaction. The author
+     * is kept; tags are replaced by changes.tags, found by id or else by
+     * name, and tags named for the first time are created.
+     *
+     * @return The updated post, or empty if there is no post with this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException If
+     * changes carries a version other than the stored one, or the post was
+     * changed concurrently
+     */
+    Optional<BlogPost> updatePost(UUID id, BlogPostDTO changes);
+
+    /**
+     * Applies a JSON Merge Patch to the stored post, touching only the
+     * fields it names. The read time is recomputed only if the content
+     * actually changed.
+     *
+     * @return The updated post, or empty if there is no post with this id
+     * @throws IllegalArgumentException If the patch is malformed, exceeds a
+     * length limit of BlogPostDTO or names a field that cannot be patched
+     * @throws org.springframework.dao.OptimisticLockingFailureException If
+     * the patch carries a version other than the stored one
+     */
+    Optional<BlogPost> patchPost(UUID id, JsonNode patch);
+
+    /**
+     * Deletes the post and, once that is committed, releases its image files
+     *
+     * @return Whether a post was deleted
+     */
+    boolean deleteIfExists(UUID id);
 
     Optional<BlogPost> getPostById(UUID id);
 
@@ -0,0 +1,67 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.dto.UploadSessionDTO;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resumable uploads. Every method taking a path only finds uploads that were
+ * started for that path.
+ */
+public interface ChunkedUploadService {
+    /**
+     * Starts a resumable upload. The client then sends the file as
+     * partCount chunks of chunkSize bytes (the last one may be shorter).
+     *
+     * @param path    The path where to store the file
+     * @param request The file name, content type and size
+     * @return The new upload session
+     */
+    UploadSessionDTO initUpload(String path, UploadInitRequest request);
+
+    /**
+     * Gets an upload session together with the parts received so far
+     *
+     * @param path     The path the upload was started for
+     * @param uploadId The ID of the upload
+     * @return The upload session if found
+     */
+    Optional<UploadSessionDTO> getUpload(String path, UUID uploadId);
+
+    /**
+     * Stores one chunk, streaming it straight to object storage. Parts may
+     * arrive in any order and concurrently; re-sending a part replaces it.
+     *
+     * @param path          The path the upload was started for
+     * @param uploadId      The ID of the upload
+     * @param partNumber    The 1-based part number
+     * @param body          The chunk content
+     * @param contentLength The declared length of the chunk
+     * @return false if the upload was not found
+     * @throws Exception If the chunk can not be stored
+     */
+    boolean uploadPart(String path, UUID uploadId, int partNumber, InputStream body, long contentLength)
+            throws Exception;
+
+    /**
+     * Assembles the parts into the final object and ends the session
+     *
+     * @param path     The path the upload was started for
+     * @param uploadId The ID of the upload
+     * @return The URL to access the file, or empty if the upload was not found
+     * @throws Exception If the object can not be assembled
+     */
+    Optional<String> completeUpload(String path, UUID uploadId) throws Exception;
+
+    /**
+     * Discards the parts received so far and ends the session
+     *
+     * @param path     The path the upload was started for
+     * @param uploadId The ID of the upload
+     * @return false if the upload was not found
+     */
+    boolean abortUpload(String path, UUID uploadId);
+}
@@ -0,0 +1,16 @@
+package com.example.blogapp.service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public interface ClusterLockService {
+    /**
+     * Runs a task while holding a lock shared by all application instances.
+     * Does not wait: if another instance holds the lock, the task is skipped.
+     *
+     * @param name Identifies the lock
+     * @param task The work to do under the lock
+     * @return The task's result, or empty if the lock was held elsewhere
+     */
+    <T> Optional<T> runExclusively(String name, Supplier<T> task);
+}
@@ -1,7 +1,9 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.CommentDTO;
 import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.BlogPost;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
@@ -11,9 +13,32 @@ import java.util.UUID;
 public interface CommentService {
     Comment createComment(Comment comment);
 
-    Comment updateComment(Comment comment);
-
-    void deleteComment(UUID id);
+    /**
+     * Replaces the content of the stored comment in a single transaction.
+     *
+     * @return The updated comment, or empty if there is no comment with this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException If
+     * changes carries a version other than the stored one, or the comment was
+     * changed concurrently
+     */
+    Optional<Comment> updateComment(UUID id, CommentDTO changes);
+
+    /**
+     * Applies a JSON Merge Patch with content and/or version to the stored
+     * comment.
+     *
+     * @return The updated comment, or empty if there is no comment with this id
+     * @throws IllegalArgumentException If the patch is malformed or the
+     * content exceeds 1000 characters
+     * @throws org.springframework.dao.OptimisticLockingFailureException If
+     * the patch carries a version other than the stored one
+     */
+    Optional<Comment> patchComment(UUID id, JsonNode patch);
+
+    /**
+     * @return Whether a comment was deleted
+     */
+    boolean deleteIfExists(UUID id);
 
     Optional<Comment> getCommentById(UUID id);
 
@@ -0,0 +1,33 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.DirectUploadDTO;
+import com.example.blogapp.dto.UploadInitRequest;
+
+import java.util.Optional;
+
+/**
+ * Uploads that go from the browser straight to object storage. Only
+ * available where FileStorageService.directUploads() returns it.
+ */
+public interface DirectUploadService {
+    /**
+     * Issues a short-lived presigned upload for a server-chosen object name,
+     * so the file goes from the browser straight to storage
+     * 
+     * @param path    The path where to store the file
+     * @param request The file name, content type and exact size of the upload
+     * @return The upload URL and the form fields to send with it
+     * @throws Exception If the upload can not be signed
+     */
+    DirectUploadDTO createDirectUpload(String path, UploadInitRequest request) throws Exception;
+
+    /**
+     * Verifies a finished direct upload against the upload restrictions
+     * 
+     * @param path       The path the upload was issued for
+     * @param objectName The object name returned by createDirectUpload
+     * @return The URL to access the file, or empty if no such upload exists
+     * @throws Exception If the object can not be checked
+     */
+    Optional<String> completeDirectUpload(String path, String objectName) throws Exception;
+}
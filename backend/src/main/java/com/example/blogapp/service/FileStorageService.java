@@ -2,6 +2,8 @@ package com.example.blogapp.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Optional;
+
 public interface FileStorageService {
     /**
      * Stores a file and returns its URL
@@ -13,6 +15,12 @@ public interface FileStorageService {
      */
     String storeFile(MultipartFile file, String path) throws Exception;
 
+    /**
+     * @return Direct browser uploads, or empty if the storage backend does
+     * not support them
+     */
+    Optional<DirectUploadService> directUploads();
+
     /**
      * Deletes a file
      * 
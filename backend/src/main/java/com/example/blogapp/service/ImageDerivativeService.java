@@ -0,0 +1,36 @@
+package com.example.blogapp.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface ImageDerivativeService {
+    /**
+     * Records a derivative job for an uploaded image and hands it to the
+     * worker pool. The job is persisted first, so it survives a restart.
+     *
+     * @param objectName The object name of the original image
+     */
+    void enqueue(String objectName);
+
+    /**
+     * Maps a requested display width onto the name of the variant that
+     * should be served for it. The variant may not exist (yet), e.g. when
+     * the original is narrower than the chosen width.
+     *
+     * @param objectName The object name of the original image
+     * @param width      The requested width in pixels
+     * @return The variant object name, or empty if the object has no variants
+     */
+    Optional<String> variantFor(String objectName, int width);
+
+    /**
+     * Re-submits jobs left pending, and those whose worker's claim has
+     * expired, e.g. because its instance was stopped mid-job
+     */
+    void resumePendingJobs();
+
+    /**
+     * @return Queue depth, job counts and per-stage timings of the pipeline
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,21 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.OrphanCollectionReport;
+
+import java.util.Optional;
+
+public interface OrphanFileCollectionService {
+    /**
+     * Removes stored objects that no post or user refers to any more.
+     *
+     * @param dryRun Only report what would be removed
+     * @return The report, or empty if a collection is already running on
+     * another instance
+     */
+    Optional<OrphanCollectionReport> collect(boolean dryRun);
+
+    /**
+     * @return The report of the most recent collection on this instance
+     */
+    Optional<OrphanCollectionReport> getLastReport();
+}
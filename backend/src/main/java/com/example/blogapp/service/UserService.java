@@ -1,6 +1,7 @@
 package com.example.blogapp.service;
 
 import com.example.blogapp.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +11,16 @@ public interface UserService {
 
     User updateUser(User user);
 
+    /**
+     * Applies a JSON Merge Patch with fullName and/or bio to the stored
+     * profile; only the named fields are written.
+     *
+     * @return The updated user, or empty if the user no longer exists
+     * @throws IllegalArgumentException If the patch is malformed, exceeds a
+     * length limit or names another field
+     */
+    Optional<User> patchProfile(UUID id, JsonNode patch);
+
     void deleteUser(UUID id);
 
     Optional<User> getUserById(UUID id);
@@ -6,11 +6,14 @@ import com.example.blogapp.dto.auth.RegisterRequest;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.UserMapper;
 import com.example.blogapp.service.AuthService;
+import com.example.blogapp.service.AvailabilityService;
 import com.example.blogapp.service.UserService;
 import com.example.blogapp.security.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,22 +26,27 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final AvailabilityService availabilityService;
 
     @Override
     @Transactional
     public AuthResponse register(RegisterRequest request) {
-        if (userService.existsByEmail(request.getEmail()) ||
-                userService.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username or email already exists");
-        }
-
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
         user.setFullName(request.getFullName());
 
-        User savedUser = userService.createUser(user);
+        // Rely on the unique indexes instead of pre-checking: a single insert
+        // both saves a round trip and closes the check-then-insert race
+        User savedUser;
+        try {
+            savedUser = userService.createUser(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Username or email already exists");
+        }
+        availabilityService.markTaken(savedUser.getUsername(), savedUser.getEmail());
+
         String token = jwtService.generateToken(savedUser);
 
         return AuthResponse.builder()
@@ -49,14 +57,13 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsernameOrEmail(),
                         request.getPassword()));
 
-        User user = userService.getUserByUsername(request.getUsernameOrEmail())
-                .orElseGet(() -> userService.getUserByEmail(request.getUsernameOrEmail())
-                        .orElseThrow(() -> new IllegalArgumentException("User not found")));
+        // The provider already loaded the user to check the password, reuse it
+        User user = (User) authentication.getPrincipal();
 
         String token = jwtService.generateToken(user);
 
@@ -0,0 +1,243 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.entity.User;
+import com.example.blogapp.service.AvatarService;
+import com.example.blogapp.service.UserService;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Avatars are rendered once at upload to a few small square JPEGs. They
+ * appear next to every comment, so the renditions are kept in memory and
+ * a page full of comments is answered without touching storage.
+ */
+@Service
+public class AvatarServiceImpl implements AvatarService {
+    public static final String AVATARS_PATH = "/api/avatars/";
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+    private static final Pattern FILE_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.jpg");
+
+    private final StorageBackend storageBackend;
+    private final UserService userService;
+    private final int[] sizes;
+    private final LruCache<String, AvatarImage> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Value("${avatar.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${avatar.max-source-pixels:25000000}")
+    private long maxSourcePixels;
+
+    public AvatarServiceImpl(
+            StorageBackend storageBackend,
+            UserService userService,
+            @Value("${avatar.sizes:64,128}") int[] sizes,
+            @Value("${avatar.cache.max-entries:20000}") int cacheEntries) {
+        if (sizes.length == 0) {
+            throw new IllegalArgumentException("At least one avatar size is required");
+        }
+        this.storageBackend = storageBackend;
+        this.userService = userService;
+        this.sizes = Arrays.stream(sizes).sorted().distinct().toArray();
+        this.cache = new LruCache<>(cacheEntries);
+    }
+
+    @Override
+    public User updateAvatar(User user, MultipartFile file) throws Exception {
+        BufferedImage square;
+        try (InputStream in = file.getInputStream()) {
+            square = cropToSquare(decode(in));
+        }
+
+        // The previous avatar is left to the orphan collection, pages rendered
+        // before the change may still show it for a while
+        String fileName = UUID.randomUUID() + ".jpg";
+        for (int size : sizes) {
+            byte[] encoded = encode(resize(square, size));
+            String objectName = objectName(user.getId(), fileName, size);
+            storageBackend.write(objectName, new ByteArrayInputStream(encoded), encoded.length, CONTENT_TYPE);
+            cache.put(objectName, new AvatarImage(encoded, etag(encoded), CONTENT_TYPE));
+        }
+
+        user.setAvatarUrl(AVATARS_PATH + user.getId() + "/" + fileName);
+        return userService.updateUser(user);
+    }
+
+    @Override
+    public Optional<AvatarImage> getAvatar(UUID userId, String fileName, Integer size) throws Exception {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        String objectName = objectName(userId, fileName, renditionFor(size));
+        AvatarImage cached = cache.get(objectName);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        misses.incrementAndGet();
+        if (storageBackend.stat(objectName).isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] content;
+        try (InputStream in = storageBackend.read(objectName)) {
+            content = in.readAllBytes();
+        }
+        AvatarImage image = new AvatarImage(content, etag(content), CONTENT_TYPE);
+        cache.put(objectName, image);
+        return Optional.of(image);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sizes", sizes);
+        stats.put("entries", cache.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    /**
+     * Smallest configured size that is at least as large as requested
+     */
+    private int renditionFor(Integer size) {
+        int largest = sizes[sizes.length - 1];
+        if (size == null) {
+            return largest;
+        }
+        for (int candidate : sizes) {
+            if (candidate >= size) {
+                return candidate;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * The largest rendition is stored under the plain name and the others as
+     * its width variants, the naming the orphan collection already keeps
+     * together.
+     */
+    private String objectName(UUID userId, String fileName, int size) {
+        String name = "avatars/" + userId + "/" + fileName;
+        if (size == sizes[sizes.length - 1]) {
+            return name;
+        }
+        return name.substring(0, name.length() - ".jpg".length()) + "-w" + size + ".jpg";
+    }
+
+    private BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Avatar must be a JPEG, PNG or GIF image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IllegalArgumentException("Avatar has " + pixels + " pixels, limit is " + maxSourcePixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage image) {
+        int edge = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - edge) / 2, (image.getHeight() - edge) / 2, edge, edge);
+    }
+
+    /**
+     * Scales in steps of at most half, like the post image derivatives, and
+     * flattens transparency onto white since the output is JPEG. Images
+     * smaller than the target are scaled up so every rendition has its
+     * nominal size.
+     */
+    private static BufferedImage resize(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int edge = source.getWidth();
+        do {
+            edge = edge > size ? Math.max(size, edge / 2) : size;
+            BufferedImage next = new BufferedImage(edge, edge, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, edge, edge);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, edge, edge, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (edge != size);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] content) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.TagDTO;
 import com.example.blogapp.entity.BlogPost;
+import com.example.blogapp.entity.Tag;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.repository.BlogPostRepository;
+import com.example.blogapp.repository.TagRepository;
 import com.example.blogapp.service.BlogPostService;
+import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.TagService;
 import com.example.blogapp.util.BlogPostStatus;
+import com.example.blogapp.util.MergePatch;
+import com.example.blogapp.util.ObjectNames;
+import com.example.blogapp.util.UuidV7;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.Normalizer;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,12 +38,23 @@ import java.util.Locale;
 import java.util.regex.Pattern;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BlogPostServiceImpl implements BlogPostService {
+    private static final Set<String> PATCH_FIELDS = Set.of(
+            "title", "slug", "description", "content", "status", "postDate", "readTime", "tags", "version");
+    private static final String FILES_PATH = "/api/files/";
+
     private final BlogPostRepository blogPostRepository;
+    private final TagRepository tagRepository;
+    private final TagService tagService;
+    private final FileStorageService fileStorageService;
 
     @Override
     public BlogPost createPost(BlogPost post) {
@@ -37,7 +67,10 @@ public class BlogPostServiceImpl implements BlogPostService {
         if (post.getReadTime() == null || post.getReadTime().isEmpty()) {
             post.setReadTime(calculateReadTime(post.getContent()));
         }
-        return blogPostRepository.save(post);
+        post.setContentHash(contentHash(post.getContent()));
+        // The image is attached by uploading it, see replaceImage
+        post.setImageUrl(null);
+        return fetchForMapping(blogPostRepository.save(post));
     }
 
     @Override
@@ -49,12 +82,109 @@ public class BlogPostServiceImpl implements BlogPostService {
         if (post.getReadTime() == null || post.getReadTime().isEmpty()) {
             post.setReadTime(calculateReadTime(post.getContent()));
         }
-        return blogPostRepository.save(post);
+        return fetchForMapping(blogPostRepository.save(post));
+    }
+
+    @Override
+    public Optional<BlogPost> replaceImage(UUID id, String imageUrl) {
+        // Loaded here rather than before the upload, so edits made meanwhile
+        // are kept and the image released is the one actually replaced
+        return blogPostRepository.findById(id).map(post -> {
+            String previous = post.getImageUrl();
+            post.setImageUrl(imageUrl);
+            BlogPost saved = fetchForMapping(blogPostRepository.saveAndFlush(post));
+            if (previous != null && !previous.equals(imageUrl)) {
+                releaseFilesAfterCommit(id, List.of(previous));
+            }
+            return saved;
+        });
+    }
+
+    @Override
+    public void addImages(UUID postId, List<String> imageUrls) {
+        imageUrls.forEach(imageUrl -> blogPostRepository.insertImage(UuidV7.next(), postId, imageUrl));
+    }
+
+    @Override
+    public Optional<BlogPost> updatePost(UUID id, BlogPostDTO changes) {
+        return blogPostRepository.findById(id).map(post -> {
+            checkVersion(changes.getVersion(), post);
+            post.setTitle(changes.getTitle());
+            if (changes.getSlug() != null && !changes.getSlug().isEmpty()) {
+                post.setSlug(changes.getSlug());
+            }
+            post.setDescription(changes.getDescription());
+            // Clients send back the read time they got; only a different one overrides the computed value
+            String readTime = post.getReadTime();
+            setContent(post, changes.getContent());
+            if (changes.getReadTime() != null && !changes.getReadTime().isEmpty()
+                    && !changes.getReadTime().equals(readTime)) {
+                post.setReadTime(changes.getReadTime());
+            }
+            post.setStatus(changes.getStatus());
+            if (changes.getPostDate() != null) {
+                post.setPostDate(changes.getPostDate());
+            }
+            // Clients send back the image URL they got; it only changes by uploading a new image
+            Set<Tag> tags = findTags(changes.getTags());
+            post.getTags().retainAll(tags);
+            post.getTags().addAll(tags);
+            // Flushed here so the new version is in the result and a
+            // concurrent change fails inside this call
+            return fetchForMapping(blogPostRepository.saveAndFlush(post));
+        });
+    }
+
+    @Override
+    public Optional<BlogPost> patchPost(UUID id, JsonNode patch) {
+        MergePatch changes = MergePatch.of(patch, PATCH_FIELDS);
+        return blogPostRepository.findById(id).map(post -> {
+            // Length limits as on BlogPostDTO
+            if (changes.has("version")) {
+                checkVersion(changes.number("version"), post);
+            }
+            if (changes.has("title")) {
+                post.setTitle(changes.requiredText("title", 3, 255));
+            }
+            if (changes.has("slug")) {
+                post.setSlug(changes.requiredText("slug"));
+            }
+            if (changes.has("description")) {
+                post.setDescription(changes.text("description", 500));
+            }
+            if (changes.has("content")) {
+                setContent(post, changes.requiredText("content"));
+            }
+            if (changes.has("readTime")) {
+                String readTime = changes.text("readTime");
+                post.setReadTime(readTime != null ? readTime : calculateReadTime(post.getContent()));
+            }
+            if (changes.has("status")) {
+                post.setStatus(changes.enumValue("status", BlogPostStatus.class));
+            }
+            if (changes.has("postDate")) {
+                LocalDateTime postDate = changes.dateTime("postDate");
+                post.setPostDate(postDate != null ? postDate : LocalDateTime.now());
+            }
+            if (changes.has("tags")) {
+                Set<Tag> tags = new HashSet<>(tagRepository.findAllById(changes.ids("tags")));
+                post.getTags().retainAll(tags);
+                post.getTags().addAll(tags);
+            }
+            // Unchanged fields are not dirty, and dynamic update leaves them out of the UPDATE
+            return fetchForMapping(blogPostRepository.saveAndFlush(post));
+        });
     }
 
     @Override
-    public void deletePost(UUID id) {
-        blogPostRepository.deleteById(id);
+    public boolean deleteIfExists(UUID id) {
+        List<String> files = new ArrayList<>(blogPostRepository.findImageUrlsById(id));
+        files.addAll(blogPostRepository.findUploadedImageUrlsById(id));
+        if (blogPostRepository.deleteRowById(id) == 0) {
+            return false;
+        }
+        releaseFilesAfterCommit(id, files);
+        return true;
     }
 
     @Override
@@ -104,7 +234,9 @@ public class BlogPostServiceImpl implements BlogPostService {
     @Override
     @Transactional(readOnly = true)
     public Page<BlogPost> searchPosts(String query, Pageable pageable) {
-        return blogPostRepository.searchPosts(query, BlogPostStatus.PUBLISHED, pageable);
+        Page<BlogPost> result = blogPostRepository.searchPosts(query, BlogPostStatus.PUBLISHED, pageable);
+        result.forEach(this::fetchForMapping);
+        return result;
     }
 
     @Override
@@ -113,6 +245,7 @@ public class BlogPostServiceImpl implements BlogPostService {
         System.out.println("Filtering posts for status: " + BlogPostStatus.PUBLISHED);
         // Use the enum
         Page<BlogPost> result = blogPostRepository.findByStatus(BlogPostStatus.PUBLISHED, pageable);
+        result.forEach(this::fetchForMapping);
 
         System.out.println("Found " + result.getTotalElements() + " published posts");
 
@@ -147,6 +280,131 @@ public class BlogPostServiceImpl implements BlogPostService {
         return slug;
     }
 
+    /**
+     * Drops the post's references to files once the transaction commits, so
+     * a rollback never leaves the post pointing at a removed file. Failures
+     * only leave the file to the orphan collector.
+     */
+    private void releaseFilesAfterCommit(UUID postId, List<String> fileUrls) {
+        Runnable release = () -> {
+            for (String fileUrl : fileUrls) {
+                if (!isReleasable(postId, fileUrl)) {
+                    continue;
+                }
+                try {
+                    fileStorageService.deleteFile(fileUrl);
+                } catch (Exception e) {
+                    log.warn("Could not release file {} of post {}", fileUrl, postId, e);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * Image URLs are only set from uploads for the post, each of which took
+     * a reference to deduplicated content, so that reference is dropped even
+     * if the content lives under another post. Any other file is only removed
+     * if it was uploaded for this post; older posts may still point at files
+     * of other posts that were set by URL.
+     */
+    private static boolean isReleasable(UUID postId, String fileUrl) {
+        if (!fileUrl.startsWith(FILES_PATH)) {
+            return false;
+        }
+        String objectName = fileUrl.substring(FILES_PATH.length());
+        return ObjectNames.isContentAddressed(objectName) || objectName.startsWith("posts/" + postId + "/");
+    }
+
+    private static void checkVersion(Long expected, BlogPost post) {
+        if (expected != null && !expected.equals(post.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(BlogPost.class, post.getId());
+        }
+    }
+
+    /**
+     * Replaces the content and its derived fields, unless the content is
+     * the same as stored. Posts written before content hashes existed are
+     * always treated as changed.
+     */
+    private void setContent(BlogPost post, String content) {
+        String hash = contentHash(content);
+        if (hash.equals(post.getContentHash())) {
+            return;
+        }
+        post.setContent(content);
+        post.setContentHash(hash);
+        post.setReadTime(calculateReadTime(content));
+    }
+
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Resolves tags by id and, for tags sent without one, by name, creating
+     * those that do not exist yet
+     */
+    private Set<Tag> findTags(Set<TagDTO> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<UUID> ids = tags.stream()
+                .map(TagDTO::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<Tag> found = new HashSet<>(tagRepository.findAllById(ids));
+        for (TagDTO tag : tags) {
+            if (tag.getId() != null) {
+                continue;
+            }
+            if (tag.getName() == null || tag.getName().isBlank()) {
+                throw new IllegalArgumentException("Tags need an id or a name");
+            }
+            // TagDTO's limits; tags of a post are not bean-validated, since
+            // tags given by id need no name
+            if (tag.getName().length() < 2 || tag.getName().length() > 50) {
+                throw new IllegalArgumentException("Tag name must be between 2 and 50 characters");
+            }
+            found.add(tagRepository.findByName(tag.getName()).orElseGet(() -> {
+                Tag created = new Tag();
+                created.setName(tag.getName());
+                return tagService.createTag(created);
+            }));
+        }
+        return found;
+    }
+
+    /**
+     * Loads what BlogPostMapper reads while the transaction is open, since
+     * controllers map the post after it has ended. The tags of a page are
+     * fetched in batches (hibernate.default_batch_fetch_size); after a merge
+     * the author and tags may still be uninitialized references.
+     */
+    private BlogPost fetchForMapping(BlogPost post) {
+        Hibernate.initialize(post.getAuthor());
+        if (post.getTags() != null) {
+            Hibernate.initialize(post.getTags());
+            post.getTags().forEach(Hibernate::initialize);
+        }
+        return post;
+    }
+
     /**
      * Calculate estimated reading time based on content length.
      * Average reading speed is about 200-250 words per minute.
@@ -0,0 +1,169 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.dto.auth.AvailabilityResponse;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.AvailabilityService;
+import com.example.blogapp.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Answers availability checks from an in-memory Bloom filter of lowercase
+ * usernames and emails. A negative answer from the filter is definitive, so
+ * only "maybe taken" values fall through to an indexed database probe.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BloomFilterAvailabilityServiceImpl implements AvailabilityService {
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final UserRepository userRepository;
+
+    @Value("${auth.availability.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${auth.availability.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    // Null until the first build completes; checks go to the database meanwhile
+    private volatile BloomFilter filter;
+
+    // Filter being populated by rebuild(), receives concurrent registrations too
+    private volatile BloomFilter pending;
+
+    // Held while marking and while swapping filters, so a registration lands
+    // in the filter that ends up installed
+    private final Object writeLock = new Object();
+
+    private final AtomicLong filterHits = new AtomicLong();
+    private final AtomicLong databaseProbes = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        if (username == null && email == null) {
+            throw new IllegalArgumentException("Username or email is required");
+        }
+
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null ? null
+                        : isAvailable(USERNAME_PREFIX, username, userRepository::existsByUsernameIgnoreCase))
+                .emailAvailable(email == null ? null
+                        : isAvailable(EMAIL_PREFIX, email, userRepository::existsByEmailIgnoreCase))
+                .build();
+    }
+
+    @Override
+    public void markTaken(String username, String email) {
+        mark(username, email);
+        // Called before the insert commits; a rebuild whose query started in
+        // between does not see the row, so mark again once it is visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mark(username, email);
+                }
+            });
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        long userCount = userRepository.count();
+        BloomFilter next = BloomFilter.create(
+                Math.max(expectedInsertions, userCount * 4), falsePositiveProbability);
+        synchronized (writeLock) {
+            pending = next;
+        }
+
+        try (Stream<String> usernames = userRepository.streamUsernamesLowercase()) {
+            usernames.forEach(username -> next.put(USERNAME_PREFIX + username));
+        }
+        try (Stream<String> emails = userRepository.streamEmailsLowercase()) {
+            emails.forEach(email -> next.put(EMAIL_PREFIX + email));
+        }
+
+        synchronized (writeLock) {
+            filter = next;
+            pending = null;
+        }
+
+        log.info("Built availability Bloom filter in {} ms: {} entries, {} bits ({} KB), {} hash functions, "
+                + "expected false-positive rate {}",
+                (System.nanoTime() - startedAt) / 1_000_000,
+                next.getInsertions(),
+                next.getBitSize(),
+                next.getBitSize() / 8 / 1024,
+                next.getHashFunctions(),
+                String.format(Locale.ROOT, "%.5f", next.expectedFalsePositiveProbability()));
+    }
+
+    private boolean isAvailable(String prefix, String value, Predicate<String> databaseProbe) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(prefix + normalized)) {
+            filterHits.incrementAndGet();
+            return true;
+        }
+
+        databaseProbes.incrementAndGet();
+        boolean taken = databaseProbe.test(normalized);
+        if (current != null && !taken) {
+            long observed = falsePositives.incrementAndGet();
+            if (observed % 1000 == 0) {
+                logStats(current);
+            }
+        }
+        return !taken;
+    }
+
+    private void mark(String username, String email) {
+        synchronized (writeLock) {
+            put(filter, username, email);
+            put(pending, username, email);
+        }
+    }
+
+    private void put(BloomFilter target, String username, String email) {
+        if (target == null) {
+            return;
+        }
+        if (username != null) {
+            target.put(USERNAME_PREFIX + username.trim().toLowerCase(Locale.ROOT));
+        }
+        if (email != null) {
+            target.put(EMAIL_PREFIX + email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private void logStats(BloomFilter current) {
+        long negatives = filterHits.get() + falsePositives.get();
+        log.info("Availability Bloom filter: {} entries, {} bits, expected false-positive rate {}, "
+                + "observed false-positive rate {} ({} filter answers, {} database probes)",
+                current.getInsertions(),
+                current.getBitSize(),
+                String.format(Locale.ROOT, "%.5f", current.expectedFalsePositiveProbability()),
+                String.format(Locale.ROOT, "%.5f", negatives == 0 ? 0.0 : (double) falsePositives.get() / negatives),
+                filterHits.get(),
+                databaseProbes.get());
+    }
+}
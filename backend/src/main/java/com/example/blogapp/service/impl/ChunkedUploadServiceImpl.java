@@ -0,0 +1,216 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.dto.UploadSessionDTO;
+import com.example.blogapp.entity.UploadSession;
+import com.example.blogapp.repository.UploadSessionRepository;
+import com.example.blogapp.service.ChunkedUploadService;
+import com.example.blogapp.storage.ObjectSummary;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.util.ContentTypeDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Stores every chunk as its own object under uploads/{uploadId}/ and joins
+ * them with a compose, which MinIO executes server-side as a multipart
+ * upload of the chunks. Chunk bodies go from the request stream to storage
+ * without being spooled to disk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+    private static final String PARTS_PREFIX = "uploads/";
+
+    // S3 rejects multipart parts smaller than 5 MiB, except for the last one
+    private static final long MIN_CHUNK_SIZE = 5L * 1024 * 1024;
+
+    private final StorageBackend storageBackend;
+    private final UploadSessionRepository uploadSessionRepository;
+
+    @Value("${upload.chunk-size:8388608}")
+    private long chunkSize;
+
+    @Value("${upload.max-size:1073741824}")
+    private long maxSize;
+
+    @Value("${upload.expiry-hours:24}")
+    private int expiryHours;
+
+    @Override
+    public UploadSessionDTO initUpload(String path, UploadInitRequest request) {
+        if (request.getSize() <= 0 || request.getSize() > maxSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxSize + " bytes");
+        }
+
+        long effectiveChunkSize = Math.max(chunkSize, MIN_CHUNK_SIZE);
+        UploadSession session = new UploadSession();
+        // The extension is added on completion, from the type sniffed from
+        // the first chunk; the client's file name is not trusted for it
+        session.setObjectName(path + "/" + UUID.randomUUID());
+        session.setContentType(StringUtils.hasText(request.getContentType())
+                ? request.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        session.setTotalSize(request.getSize());
+        session.setChunkSize(effectiveChunkSize);
+        session.setPartCount((int) ((request.getSize() + effectiveChunkSize - 1) / effectiveChunkSize));
+
+        return toDTO(uploadSessionRepository.save(session), List.of());
+    }
+
+    @Override
+    public Optional<UploadSessionDTO> getUpload(String path, UUID uploadId) {
+        return findSession(path, uploadId)
+                .map(session -> toDTO(session, listReceivedParts(uploadId)));
+    }
+
+    @Override
+    public boolean uploadPart(String path, UUID uploadId, int partNumber, InputStream body, long contentLength)
+            throws Exception {
+        Optional<UploadSession> found = findSession(path, uploadId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        UploadSession session = found.get();
+
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new IllegalArgumentException("Part number must be between 1 and " + session.getPartCount());
+        }
+        long expectedLength = partNumber < session.getPartCount()
+                ? session.getChunkSize()
+                : session.getTotalSize() - session.getChunkSize() * (session.getPartCount() - 1);
+        if (contentLength != expectedLength) {
+            throw new IllegalArgumentException(
+                    "Part " + partNumber + " must be exactly " + expectedLength + " bytes");
+        }
+
+        InputStream source = body;
+        if (partNumber == 1) {
+            // The first chunk carries the magic bytes, so unknown types are
+            // rejected before the upload can complete
+            source = new BufferedInputStream(body);
+            String contentType = ContentTypeDetector.detect(source)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported file type"));
+            if (!contentType.equals(session.getContentType())) {
+                session.setContentType(contentType);
+                uploadSessionRepository.save(session);
+            }
+        }
+
+        storageBackend.write(partName(uploadId, partNumber), source, expectedLength,
+                MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        return true;
+    }
+
+    @Override
+    public Optional<String> completeUpload(String path, UUID uploadId) throws Exception {
+        Optional<UploadSession> found = findSession(path, uploadId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        UploadSession session = found.get();
+
+        List<Integer> receivedParts = listReceivedParts(uploadId);
+        if (receivedParts.size() != session.getPartCount()) {
+            throw new IllegalArgumentException("Upload is missing "
+                    + (session.getPartCount() - receivedParts.size()) + " of " + session.getPartCount() + " parts");
+        }
+
+        List<String> sources = IntStream.rangeClosed(1, session.getPartCount())
+                .mapToObj(partNumber -> partName(uploadId, partNumber))
+                .toList();
+        // All parts are in, so part 1 has been sniffed and the content type
+        // is the detected one
+        String objectName = session.getObjectName() + ContentTypeDetector.extensionFor(session.getContentType());
+        storageBackend.compose(objectName, sources, session.getContentType());
+
+        removeParts(session);
+        uploadSessionRepository.delete(session);
+        return Optional.of("/api/files/" + objectName);
+    }
+
+    @Override
+    public boolean abortUpload(String path, UUID uploadId) {
+        Optional<UploadSession> found = findSession(path, uploadId);
+        found.ifPresent(session -> {
+            removeParts(session);
+            uploadSessionRepository.delete(session);
+        });
+        return found.isPresent();
+    }
+
+    @Scheduled(
+            initialDelayString = "${upload.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${upload.cleanup-interval-ms:3600000}")
+    public void expireStaleUploads() {
+        List<UploadSession> stale = uploadSessionRepository.findByCreatedAtBefore(
+                LocalDateTime.now().minusHours(expiryHours));
+        for (UploadSession session : stale) {
+            removeParts(session);
+            uploadSessionRepository.delete(session);
+        }
+        if (!stale.isEmpty()) {
+            log.info("Expired {} abandoned uploads", stale.size());
+        }
+    }
+
+    private Optional<UploadSession> findSession(String path, UUID uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getObjectName().startsWith(path + "/"));
+    }
+
+    private List<Integer> listReceivedParts(UUID uploadId) {
+        String prefix = PARTS_PREFIX + uploadId + "/";
+        try (Stream<ObjectSummary> objects = storageBackend.list(prefix)) {
+            return objects
+                    .map(object -> Integer.parseInt(object.name().substring(prefix.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Could not list parts of upload " + uploadId, e);
+        }
+    }
+
+    private void removeParts(UploadSession session) {
+        List<String> parts = IntStream.rangeClosed(1, session.getPartCount())
+                .mapToObj(partNumber -> partName(session.getId(), partNumber))
+                .toList();
+        try {
+            storageBackend.delete(parts);
+        } catch (IOException e) {
+            log.warn("Could not remove parts of upload {}", session.getId(), e);
+        }
+    }
+
+    private static String partName(UUID uploadId, int partNumber) {
+        return PARTS_PREFIX + uploadId + "/" + partNumber;
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session, List<Integer> receivedParts) {
+        return UploadSessionDTO.builder()
+                .id(session.getId())
+                .contentType(session.getContentType())
+                .size(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .partCount(session.getPartCount())
+                .receivedParts(receivedParts)
+                .build();
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.dto.CommentDTO;
 import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.BlogPost;
 import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.service.CommentService;
+import com.example.blogapp.util.MergePatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -26,13 +31,33 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public Comment updateComment(Comment comment) {
-        return commentRepository.save(comment);
+    public Optional<Comment> updateComment(UUID id, CommentDTO changes) {
+        // findById fetches the author, which the controller maps afterwards
+        return commentRepository.findById(id).map(comment -> {
+            checkVersion(changes.getVersion(), comment);
+            comment.setContent(changes.getContent());
+            return commentRepository.saveAndFlush(comment);
+        });
+    }
+
+    @Override
+    public Optional<Comment> patchComment(UUID id, JsonNode patch) {
+        MergePatch changes = MergePatch.of(patch, Set.of("content", "version"));
+        return commentRepository.findById(id).map(comment -> {
+            if (changes.has("version")) {
+                checkVersion(changes.number("version"), comment);
+            }
+            if (changes.has("content")) {
+                // Length limit as on CommentDTO
+                comment.setContent(changes.requiredText("content", 1, 1000));
+            }
+            return commentRepository.saveAndFlush(comment);
+        });
     }
 
     @Override
-    public void deleteComment(UUID id) {
-        commentRepository.deleteById(id);
+    public boolean deleteIfExists(UUID id) {
+        return commentRepository.deleteRowById(id) > 0;
     }
 
     @Override
@@ -58,4 +83,10 @@ public class CommentServiceImpl implements CommentService {
     public List<Comment> getAllComments() {
         return commentRepository.findAll();
     }
-}
\ No newline at end of file
+
+    private static void checkVersion(Long expected, Comment comment) {
+        if (expected != null && !expected.equals(comment.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Comment.class, comment.getId());
+        }
+    }
+}
@@ -1,24 +1,32 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.service.DirectUploadService;
 import com.example.blogapp.service.FileStorageService;
-import org.springframework.beans.factory.annotation.Value;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.util.ContentTypeDetector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * File storage without object storage features: no deduplication, no
+ * presigned URLs and no direct uploads. Used with storage.backend=local, where files are served
+ * by FileController straight from disk.
+ */
 @Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
 public class FileStorageServiceImpl implements FileStorageService {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private final StorageBackend storageBackend;
 
     @Override
     public String storeFile(MultipartFile file, String path) throws Exception {
@@ -30,33 +38,33 @@ public class FileStorageServiceImpl implements FileStorageService {
             throw new Exception("Filename contains invalid path sequence " + originalFileName);
         }
 
-        // Generate a unique file name to prevent duplicates
-        String fileExtension = getFileExtension(originalFileName);
-        String fileName = UUID.randomUUID().toString() + fileExtension;
+        try (InputStream source = new BufferedInputStream(file.getInputStream())) {
+            String contentType = ContentTypeDetector.detect(source)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported file type: " + originalFileName));
 
-        // Create the directory if it doesn't exist
-        Path targetDir = Paths.get(uploadDir, path).toAbsolutePath().normalize();
-        Files.createDirectories(targetDir);
+            // Generate a unique file name to prevent duplicates
+            String objectName = path + "/" + UUID.randomUUID() + ContentTypeDetector.extensionFor(contentType);
+            try {
+                storageBackend.write(objectName, source, file.getSize(), contentType);
+            } catch (IOException e) {
+                throw new Exception("Could not store file " + originalFileName, e);
+            }
 
-        // Copy the file to the target location
-        Path targetLocation = targetDir.resolve(fileName);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-        // Create a URL for the file
-        String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/api/files/")
-                .path(path + "/")
-                .path(fileName)
-                .toUriString();
+            // Return the object path that can be used with our API
+            return "/api/files/" + objectName;
+        }
+    }
 
-        return fileUrl;
+    @Override
+    public Optional<DirectUploadService> directUploads() {
+        // Browsers can only upload straight to object storage
+        return Optional.empty();
     }
 
     @Override
     public void deleteFile(String filePath) throws Exception {
         try {
-            Path path = Paths.get(uploadDir, filePath).toAbsolutePath().normalize();
-            Files.deleteIfExists(path);
+            storageBackend.delete(filePath.replace("/api/files/", ""));
         } catch (IOException ex) {
             throw new Exception("Could not delete file: " + filePath, ex);
         }
@@ -68,11 +76,4 @@ public class FileStorageServiceImpl implements FileStorageService {
         // Just return the original path
         return objectPath;
     }
-
-    private String getFileExtension(String fileName) {
-        if (fileName == null || fileName.lastIndexOf(".") == -1) {
-            return "";
-        }
-        return fileName.substring(fileName.lastIndexOf("."));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,372 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.entity.ImageDerivativeJob;
+import com.example.blogapp.repository.ImageDerivativeJobRepository;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.util.ImageDerivativeJobStatus;
+import com.example.blogapp.util.StageTimer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates resized, recompressed copies of uploaded images on a bounded
+ * worker pool. Jobs are rows in image_derivative_jobs, so a full queue or a
+ * restart only delays them: the periodic sweep picks up whatever is still
+ * pending. Every instance sweeps, so a worker claims a job atomically before
+ * running it and holds the claim for at most the lease.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+    // Only UUID- or SHA-256-named originals get variants, which also keeps
+    // variants ("{name}-w320.jpg") from being derived again
+    private static final Pattern SOURCE_NAME = Pattern.compile(
+            "(.*/)?([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}|[0-9a-f]{64})\\.(jpe?g|png|gif)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private final StorageBackend storageBackend;
+    private final ImageDerivativeJobRepository jobRepository;
+    private final int[] widths;
+    private final ThreadPoolExecutor executor;
+    private final StageTimer timer = new StageTimer();
+
+    // Jobs currently queued or running, so the sweep does not submit them twice
+    private final Set<UUID> submitted = ConcurrentHashMap.newKeySet();
+
+    @Value("${image.derivatives.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${image.derivatives.max-attempts:3}")
+    private int maxAttempts;
+
+    // Longer than any job takes; a claim older than this belongs to a worker
+    // that died, and the job is handed out again
+    @Value("${image.derivatives.lease-minutes:15}")
+    private long leaseMinutes;
+
+    // Guards against decompression bombs: a small file can decode to gigabytes
+    @Value("${image.derivatives.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    public ImageDerivativeServiceImpl(
+            StorageBackend storageBackend,
+            ImageDerivativeJobRepository jobRepository,
+            @Value("${image.derivatives.widths:320,640,1024,1600}") int[] widths,
+            @Value("${image.derivatives.workers:2}") int workers,
+            @Value("${image.derivatives.queue-capacity:100}") int queueCapacity) {
+        this.storageBackend = storageBackend;
+        this.jobRepository = jobRepository;
+        this.widths = Arrays.stream(widths).sorted().distinct().toArray();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void enqueue(String objectName) {
+        // Deduplicated uploads point at an original that already has variants
+        if (!SOURCE_NAME.matcher(objectName).matches()
+                || jobRepository.existsBySourceObjectAndStatusNot(objectName, ImageDerivativeJobStatus.FAILED)) {
+            return;
+        }
+        ImageDerivativeJob job = new ImageDerivativeJob();
+        job.setSourceObject(objectName);
+        job.setStatus(ImageDerivativeJobStatus.PENDING);
+        submit(jobRepository.save(job).getId());
+    }
+
+    @Override
+    public Optional<String> variantFor(String objectName, int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be greater than zero");
+        }
+        if (!SOURCE_NAME.matcher(objectName).matches() || widths.length == 0) {
+            return Optional.empty();
+        }
+        // Smallest variant that is at least as wide as requested
+        int chosen = widths[widths.length - 1];
+        for (int candidate : widths) {
+            if (candidate >= width) {
+                chosen = candidate;
+                break;
+            }
+        }
+        return Optional.of(variantName(objectName, chosen));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        sweep();
+    }
+
+    // The initial delay keeps the first sweep behind resumePendingJobs()
+    @Scheduled(
+            initialDelayString = "${image.derivatives.sweep-interval-ms:60000}",
+            fixedDelayString = "${image.derivatives.sweep-interval-ms:60000}")
+    public void sweep() {
+        // Other instances may be running jobs right now, so only claims past
+        // their lease are taken back
+        int expired = jobRepository.releaseExpiredClaims(
+                LocalDateTime.now().minus(Duration.ofMinutes(leaseMinutes)));
+        if (expired > 0) {
+            log.info("Resuming {} image derivative jobs whose claim expired", expired);
+        }
+
+        List<ImageDerivativeJob> pending = jobRepository.findByStatusOrderByCreatedAtAsc(
+                ImageDerivativeJobStatus.PENDING, PageRequest.of(0, SWEEP_BATCH_SIZE));
+        for (ImageDerivativeJob job : pending) {
+            if (!submit(job.getId())) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        Map<String, Long> jobs = new LinkedHashMap<>();
+        for (ImageDerivativeJobStatus status : ImageDerivativeJobStatus.values()) {
+            jobs.put(status.name().toLowerCase(), jobRepository.countByStatus(status));
+        }
+        stats.put("jobs", jobs);
+        stats.put("stages", timer.snapshot());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs still queued stay PENDING in the database
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return false if the pool is saturated; the job then waits for the next sweep
+     */
+    private boolean submit(UUID jobId) {
+        if (!submitted.add(jobId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    submitted.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            submitted.remove(jobId);
+            log.debug("Image derivative queue is full, job {} deferred to the next sweep", jobId);
+            return false;
+        }
+    }
+
+    private void process(UUID jobId) {
+        UUID claim = UUID.randomUUID();
+        if (jobRepository.claim(jobId, claim, LocalDateTime.now()) == 0) {
+            // Done, or claimed by a worker on this or another instance
+            return;
+        }
+        ImageDerivativeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        ImageDerivativeJobStatus outcome;
+        String error;
+        long startedAt = System.nanoTime();
+        try {
+            generateVariants(job.getSourceObject());
+            outcome = ImageDerivativeJobStatus.DONE;
+            error = null;
+            timer.record("total", startedAt);
+        } catch (Exception e) {
+            log.warn("Image derivative job {} for {} failed (attempt {})",
+                    jobId, job.getSourceObject(), job.getAttempts(), e);
+            outcome = job.getAttempts() >= maxAttempts
+                    ? ImageDerivativeJobStatus.FAILED
+                    : ImageDerivativeJobStatus.PENDING;
+            error = e.getMessage();
+        }
+        if (jobRepository.finish(jobId, claim, outcome, error, LocalDateTime.now()) == 0) {
+            log.warn("Image derivative job {} outlived its lease and was claimed again", jobId);
+        }
+    }
+
+    private void generateVariants(String objectName) throws Exception {
+        long startedAt = System.nanoTime();
+        byte[] original;
+        try (InputStream in = storageBackend.read(objectName)) {
+            original = in.readAllBytes();
+        }
+        timer.record("download", startedAt);
+
+        startedAt = System.nanoTime();
+        BufferedImage image = decode(original);
+        timer.record("decode", startedAt);
+
+        boolean png = isPng(objectName);
+        for (int width : widths) {
+            // Never upscale; clients asking for more get the original
+            if (width >= image.getWidth()) {
+                break;
+            }
+
+            startedAt = System.nanoTime();
+            BufferedImage resized = resize(image, width, png);
+            timer.record("resize", startedAt);
+
+            startedAt = System.nanoTime();
+            byte[] encoded = encode(resized, png);
+            timer.record("encode", startedAt);
+
+            startedAt = System.nanoTime();
+            storageBackend.write(variantName(objectName, width), new ByteArrayInputStream(encoded),
+                    encoded.length, png ? "image/png" : "image/jpeg");
+            timer.record("upload", startedAt);
+        }
+    }
+
+    private BufferedImage decode(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IOException("Image has " + pixels + " pixels, limit is " + maxSourcePixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales down in steps of at most half, which keeps bilinear
+     * interpolation from skipping source pixels and aliasing.
+     */
+    private static BufferedImage resize(BufferedImage source, int targetWidth, boolean keepAlpha) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (!keepAlpha) {
+                    // JPEG has no alpha channel, flatten onto white
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(png ? "png" : "jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!png) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isPng(String objectName) {
+        return objectName.toLowerCase().endsWith(".png");
+    }
+
+    private static String variantName(String objectName, int width) {
+        Matcher matcher = SOURCE_NAME.matcher(objectName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a derivable image: " + objectName);
+        }
+        String prefix = matcher.group(1) == null ? "" : matcher.group(1);
+        // PNG keeps transparency, everything else becomes JPEG
+        String extension = isPng(objectName) ? ".png" : ".jpg";
+        return prefix + matcher.group(2) + "-w" + width + extension;
+    }
+}
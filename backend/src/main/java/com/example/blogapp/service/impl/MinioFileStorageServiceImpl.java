@@ -1,22 +1,58 @@
 package com.example.blogapp.service.impl;
 
+import com.example.blogapp.dto.DirectUploadDTO;
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.entity.StoredFile;
+import com.example.blogapp.repository.StoredFileRepository;
+import com.example.blogapp.service.DirectUploadService;
 import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.StorageGuard;
+import com.example.blogapp.util.ContentTypeDetector;
+import com.example.blogapp.util.LruCache;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+@Slf4j
 @Service
-@Primary
-public class MinioFileStorageServiceImpl implements FileStorageService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
+public class MinioFileStorageServiceImpl implements FileStorageService, DirectUploadService {
+    private static final int MAX_PRESIGN_MINUTES = 7 * 24 * 60;
+    private static final String STAGING_PREFIX = "staging/";
+    private static final Pattern DIRECT_UPLOAD_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[a-z0-9]+)?");
 
     private final MinioClient minioClient;
+    // Signed for minio.public-endpoint, the host browsers are redirected to
+    private final MinioClient presignClient;
+    private final DiskObjectCache diskObjectCache;
+    private final StoredFileRepository storedFileRepository;
+    private final StorageGuard storageGuard;
 
     @Value("${minio.bucket}")
     private String bucket;
@@ -24,8 +60,42 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
     @Value("${minio.endpoint}")
     private String minioEndpoint;
 
-    public MinioFileStorageServiceImpl(MinioClient minioClient) {
+    // Where browsers reach MinIO, which may differ from the in-cluster endpoint
+    @Value("${minio.public-endpoint:${minio.endpoint}}")
+    private String minioPublicEndpoint;
+
+    @Value("${upload.direct.max-size:10485760}")
+    private long directUploadMaxSize;
+
+    @Value("${upload.direct.expiry-minutes:10}")
+    private int directUploadExpiryMinutes;
+
+    @Value("${upload.direct.allowed-content-types:image/jpeg,image/png,image/gif,image/webp}")
+    private List<String> directUploadContentTypes;
+
+    // Lifetime of the URLs we sign; callers get a cached URL as long as it
+    // stays valid for what they asked for plus the refresh margin
+    @Value("${minio.presign.ttl-minutes:1440}")
+    private int presignTtlMinutes;
+
+    @Value("${minio.presign.refresh-margin-minutes:5}")
+    private int presignRefreshMarginMinutes;
+
+    private final LruCache<String, PresignedUrl> presignedUrls;
+
+    public MinioFileStorageServiceImpl(
+            MinioClient minioClient,
+            @Qualifier("presignMinioClient") MinioClient presignClient,
+            DiskObjectCache diskObjectCache,
+            StoredFileRepository storedFileRepository,
+            StorageGuard storageGuard,
+            @Value("${minio.presign.cache-size:10000}") int presignCacheSize) {
         this.minioClient = minioClient;
+        this.presignClient = presignClient;
+        this.diskObjectCache = diskObjectCache;
+        this.storedFileRepository = storedFileRepository;
+        this.storageGuard = storageGuard;
+        this.presignedUrls = new LruCache<>(presignCacheSize);
     }
 
     @Override
@@ -38,39 +108,121 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
             throw new Exception("Filename contains invalid path sequence " + originalFileName);
         }
 
-        // Generate a unique file name to prevent duplicates
-        String fileExtension = getFileExtension(originalFileName);
-        String fileName = UUID.randomUUID().toString() + fileExtension;
+        try (InputStream source = new BufferedInputStream(file.getInputStream())) {
+            // Sniffed from the content, so unknown types are rejected before
+            // anything reaches storage
+            String contentType = ContentTypeDetector.detect(source)
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported file type: " + originalFileName));
+            String fileExtension = ContentTypeDetector.extensionFor(contentType);
 
-        // Create the full object path
-        String objectName = path + "/" + fileName;
+            // The content address is only known once the last byte has been read,
+            // so the upload goes to a staging object and is hashed on the way
+            String stagingName = STAGING_PREFIX + UUID.randomUUID();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try {
+                storageGuard.call("write", () -> minioClient.putObject(
+                        PutObjectArgs.builder()
+                                .bucket(bucket)
+                                .object(stagingName)
+                                .stream(new DigestInputStream(source, digest), file.getSize(), -1)
+                                .contentType(contentType)
+                                .build()));
 
-        try {
-            // Upload the file to MinIO
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucket)
-                            .object(objectName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build());
+                String sha256 = HexFormat.of().formatHex(digest.digest());
+                String objectName = promote(sha256, stagingName, path + "/" + sha256 + fileExtension,
+                        file.getSize(), contentType);
+
+                // Return the object path that can be used with our API
+                return "/api/files/" + objectName;
+            } catch (Exception e) {
+                throw new Exception("Could not store file " + originalFileName, e);
+            } finally {
+                removeQuietly(stagingName);
+            }
+        }
+    }
 
-            // Generate a presigned URL for the object (optional, for direct access)
-            // String url = minioClient.getPresignedObjectUrl(
-            // GetPresignedObjectUrlArgs.builder()
-            // .bucket(bucket)
-            // .object(objectName)
-            // .method(Method.GET)
-            // .expiry(7, TimeUnit.DAYS)
-            // .build()
-            // );
+    @Override
+    public Optional<DirectUploadService> directUploads() {
+        return Optional.of(this);
+    }
+
+    @Override
+    public DirectUploadDTO createDirectUpload(String path, UploadInitRequest request) throws Exception {
+        String fileName = StringUtils.cleanPath(request.getFileName());
+        if (fileName.contains("..")) {
+            throw new IllegalArgumentException("Filename contains invalid path sequence " + fileName);
+        }
+        if (!directUploadContentTypes.contains(request.getContentType())) {
+            throw new IllegalArgumentException("Content type must be one of " + directUploadContentTypes);
+        }
+        if (request.getSize() <= 0 || request.getSize() > directUploadMaxSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + directUploadMaxSize + " bytes");
+        }
 
-            // Return the object path that can be used with our API
-            return "/api/files/" + objectName;
+        // The extension follows the allowed content type, which completion
+        // checks against the bytes, and not the client's file name
+        String objectName = path + "/" + UUID.randomUUID() + ContentTypeDetector.extensionFor(request.getContentType());
+        ZonedDateTime expiresAt = ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(directUploadExpiryMinutes);
 
-        } catch (Exception e) {
-            throw new Exception("Could not store file " + fileName, e);
+        // A POST policy, unlike a presigned PUT, lets storage itself reject
+        // a different key, content type or size
+        PostPolicy policy = new PostPolicy(bucket, expiresAt);
+        policy.addEqualsCondition("key", objectName);
+        policy.addEqualsCondition("Content-Type", request.getContentType());
+        policy.addContentLengthRangeCondition(request.getSize(), request.getSize());
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("key", objectName);
+        fields.put("Content-Type", request.getContentType());
+        fields.putAll(minioClient.getPresignedPostFormData(policy));
+
+        return DirectUploadDTO.builder()
+                .url(minioPublicEndpoint + "/" + bucket)
+                .fields(fields)
+                .objectName(objectName)
+                .expiresAt(expiresAt.toInstant())
+                .build();
+    }
+
+    @Override
+    public Optional<String> completeDirectUpload(String path, String objectName) throws Exception {
+        // Only names createDirectUpload could have issued for this path
+        if (!objectName.startsWith(path + "/")
+                || !DIRECT_UPLOAD_NAME.matcher(objectName.substring(path.length() + 1)).matches()) {
+            return Optional.empty();
+        }
+
+        // A missing object is an answer from storage, not a failure of it
+        Optional<StatObjectResponse> found = storageGuard.call("stat", () -> {
+            try {
+                return Optional.of(minioClient.statObject(
+                        StatObjectArgs.builder()
+                                .bucket(bucket)
+                                .object(objectName)
+                                .build()));
+            } catch (ErrorResponseException e) {
+                if ("NoSuchKey".equals(e.errorResponse().code())) {
+                    return Optional.empty();
+                }
+                throw e;
+            }
+        });
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        StatObjectResponse stat = found.get();
+
+        // The policy only binds the declared Content-Type, so the bytes are
+        // checked as well; size is re-checked in case the storage backend
+        // ignores policy conditions
+        if (stat.size() > directUploadMaxSize
+                || !directUploadContentTypes.contains(stat.contentType())
+                || !detectContentType(objectName, stat.size()).equals(Optional.of(stat.contentType()))) {
+            removeQuietly(objectName);
+            throw new IllegalArgumentException("Uploaded file does not match the upload restrictions");
         }
+        return Optional.of("/api/files/" + objectName);
     }
 
     @Override
@@ -79,14 +231,97 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
             // Extract the object name from the file path
             String objectName = filePath.replace("/api/files/", "");
 
+            // Objects tracked in stored_files are shared; only the last
+            // reference removes the bytes. Untracked objects predate
+            // deduplication and are removed directly.
+            if (storedFileRepository.decrementReferences(objectName) == 1
+                    && storedFileRepository.deleteUnreferenced(objectName) == 0) {
+                return;
+            }
+
+            presignedUrls.remove(objectName);
+            diskObjectCache.evict(objectName);
+
             // Remove the object from MinIO
+            remove(objectName);
+        } catch (Exception e) {
+            throw new Exception("Could not delete file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Turns a staged upload into a reference to the content-addressed object,
+     * copying it into place server-side only if the content is new.
+     *
+     * @return The object name that now holds the content
+     */
+    private String promote(String sha256, String stagingName, String objectName, long size, String contentType)
+            throws Exception {
+        boolean copied = false;
+        while (true) {
+            if (storedFileRepository.incrementReferences(sha256) == 1) {
+                String existing = storedFileRepository.findById(sha256)
+                        .map(StoredFile::getObjectName)
+                        .orElseThrow();
+                if (copied && !existing.equals(objectName)) {
+                    // Lost the race to a concurrent upload of the same content
+                    removeQuietly(objectName);
+                }
+                return existing;
+            }
+            if (!copied) {
+                storageGuard.call("copy", () -> minioClient.copyObject(
+                        CopyObjectArgs.builder()
+                                .bucket(bucket)
+                                .object(objectName)
+                                .source(CopySource.builder()
+                                        .bucket(bucket)
+                                        .object(stagingName)
+                                        .build())
+                                .build()));
+                copied = true;
+            }
+            if (storedFileRepository.insertIfAbsent(sha256, objectName, size, contentType) == 1) {
+                return objectName;
+            }
+        }
+    }
+
+    private Optional<String> detectContentType(String objectName, long size) throws Exception {
+        if (size == 0) {
+            return Optional.empty();
+        }
+        // Only the header is read, so the whole read is guarded
+        byte[] header = storageGuard.call("read", () -> {
+            try (InputStream in = minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .offset(0L)
+                            .length(Math.min(size, ContentTypeDetector.HEADER_LENGTH))
+                            .build())) {
+                return in.readNBytes(ContentTypeDetector.HEADER_LENGTH);
+            }
+        });
+        return ContentTypeDetector.detect(header, header.length);
+    }
+
+    private void remove(String objectName) throws Exception {
+        storageGuard.call("delete", () -> {
             minioClient.removeObject(
                     RemoveObjectArgs.builder()
                             .bucket(bucket)
                             .object(objectName)
                             .build());
+            return null;
+        });
+    }
+
+    private void removeQuietly(String objectName) {
+        try {
+            remove(objectName);
         } catch (Exception e) {
-            throw new Exception("Could not delete file: " + filePath, e);
+            log.warn("Could not remove object {}", objectName, e);
         }
     }
 
@@ -98,23 +333,31 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
                 objectPath = objectPath.substring("/api/files/".length());
             }
 
-            // Generate a presigned URL for the object
-            return minioClient.getPresignedObjectUrl(
+            Instant now = Instant.now();
+            Duration required = Duration.ofMinutes(expiryMinutes + presignRefreshMarginMinutes);
+            PresignedUrl cached = presignedUrls.get(objectPath);
+            if (cached != null && cached.expiresAt().isAfter(now.plus(required))) {
+                return cached.url();
+            }
+
+            // Sign for the longer of the configured lifetime and the request,
+            // capped at the 7 day maximum S3 accepts
+            int signedMinutes = Math.min(MAX_PRESIGN_MINUTES,
+                    Math.max(presignTtlMinutes, expiryMinutes + presignRefreshMarginMinutes));
+            String url = presignClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .bucket(bucket)
                             .object(objectPath)
                             .method(Method.GET)
-                            .expiry(expiryMinutes, TimeUnit.MINUTES)
+                            .expiry(signedMinutes, TimeUnit.MINUTES)
                             .build());
+            presignedUrls.put(objectPath, new PresignedUrl(url, now.plus(Duration.ofMinutes(signedMinutes))));
+            return url;
         } catch (Exception e) {
             throw new Exception("Could not generate presigned URL for " + objectPath, e);
         }
     }
 
-    private String getFileExtension(String fileName) {
-        if (fileName == null || fileName.lastIndexOf(".") == -1) {
-            return "";
-        }
-        return fileName.substring(fileName.lastIndexOf("."));
+    private record PresignedUrl(String url, Instant expiresAt) {
     }
-}
\ No newline at end of file
+}
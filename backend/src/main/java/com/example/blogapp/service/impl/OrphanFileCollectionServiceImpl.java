@@ -0,0 +1,282 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.dto.OrphanCollectionReport;
+import com.example.blogapp.repository.BlogPostRepository;
+import com.example.blogapp.repository.StoredFileRepository;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.ClusterLockService;
+import com.example.blogapp.service.OrphanFileCollectionService;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.ObjectSummary;
+import com.example.blogapp.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Mark and sweep over object storage. The mark phase streams every
+ * image_url, post_images entry and avatar_url into a set; the sweep pages
+ * through the bucket listing and removes unreferenced objects in batches,
+ * throttled to a maximum delete rate. Only one instance collects at a time.
+ */
+@Slf4j
+@Service
+public class OrphanFileCollectionServiceImpl implements OrphanFileCollectionService {
+    private static final String LOCK_NAME = "orphan-file-collection";
+    private static final String FILES_PATH = "/api/files/";
+    private static final int SAMPLE_SIZE = 100;
+
+    // Image variants ("{name}-w320.jpg") live and die with their original
+    private static final Pattern VARIANT_SUFFIX = Pattern.compile("-w[0-9]+(?=\\.[^./]+$)");
+
+    private final StorageBackend storageBackend;
+    private final DiskObjectCache diskObjectCache;
+    private final BlogPostRepository blogPostRepository;
+    private final UserRepository userRepository;
+    private final StoredFileRepository storedFileRepository;
+    private final ClusterLockService clusterLockService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile OrphanCollectionReport lastReport;
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.gc.dry-run:false}")
+    private boolean scheduledDryRun;
+
+    // uploads/ is left to the chunked upload expiry, which knows the sessions
+    @Value("${storage.gc.prefixes:posts/,avatars/,staging/}")
+    private List<String> prefixes;
+
+    // Uploads are stored before the post that refers to them is saved
+    @Value("${storage.gc.min-age-hours:24}")
+    private int minAgeHours;
+
+    @Value("${storage.gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${storage.gc.max-deletes-per-second:200}")
+    private int maxDeletesPerSecond;
+
+    public OrphanFileCollectionServiceImpl(
+            StorageBackend storageBackend,
+            DiskObjectCache diskObjectCache,
+            BlogPostRepository blogPostRepository,
+            UserRepository userRepository,
+            StoredFileRepository storedFileRepository,
+            ClusterLockService clusterLockService,
+            PlatformTransactionManager transactionManager) {
+        this.storageBackend = storageBackend;
+        this.diskObjectCache = diskObjectCache;
+        this.blogPostRepository = blogPostRepository;
+        this.userRepository = userRepository;
+        this.storedFileRepository = storedFileRepository;
+        this.clusterLockService = clusterLockService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(
+            initialDelayString = "${storage.gc.interval-ms:21600000}",
+            fixedDelayString = "${storage.gc.interval-ms:21600000}")
+    public void collectPeriodically() {
+        if (!enabled) {
+            return;
+        }
+        collect(scheduledDryRun).ifPresentOrElse(
+                report -> log.info("Orphan collection {}found {} orphans ({} bytes), deleted {}",
+                        report.isDryRun() ? "(dry run) " : "",
+                        report.getOrphanedObjects(), report.getOrphanedBytes(), report.getDeletedObjects()),
+                () -> log.debug("Orphan collection is running on another instance"));
+    }
+
+    @Override
+    public Optional<OrphanCollectionReport> collect(boolean dryRun) {
+        return clusterLockService.runExclusively(LOCK_NAME, () -> {
+            try {
+                OrphanCollectionReport report = run(dryRun);
+                lastReport = report;
+                return report;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public Optional<OrphanCollectionReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private OrphanCollectionReport run(boolean dryRun) throws IOException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startedAtMillis = System.currentTimeMillis();
+        LocalDateTime cutoff = startedAt.minusHours(minAgeHours);
+        long cutoffMillis = startedAtMillis - TimeUnit.HOURS.toMillis(minAgeHours);
+
+        Set<String> referenced = loadReferences(cutoff);
+
+        long scanned = 0;
+        long skippedRecent = 0;
+        long orphaned = 0;
+        long orphanedBytes = 0;
+        long deleted = 0;
+        List<String> sample = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String prefix : prefixes) {
+            try (Stream<ObjectSummary> objects = storageBackend.list(prefix)) {
+                Iterator<ObjectSummary> iterator = objects.iterator();
+                while (iterator.hasNext()) {
+                    ObjectSummary object = iterator.next();
+                    scanned++;
+                    if (object.lastModified() > cutoffMillis) {
+                        skippedRecent++;
+                        continue;
+                    }
+                    if (isReferenced(object.name(), referenced)) {
+                        continue;
+                    }
+                    orphaned++;
+                    orphanedBytes += object.size();
+                    if (sample.size() < SAMPLE_SIZE) {
+                        sample.add(object.name());
+                    }
+                    if (!dryRun) {
+                        batch.add(object.name());
+                        if (batch.size() >= batchSize) {
+                            deleted += deleteBatch(batch, cutoff);
+                            batch.clear();
+                        }
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(batch, cutoff);
+        }
+
+        return OrphanCollectionReport.builder()
+                .dryRun(dryRun)
+                .startedAt(startedAt)
+                .durationMs(System.currentTimeMillis() - startedAtMillis)
+                .referencedFiles(referenced.size())
+                .scannedObjects(scanned)
+                .skippedRecent(skippedRecent)
+                .orphanedObjects(orphaned)
+                .orphanedBytes(orphanedBytes)
+                .deletedObjects(deleted)
+                .sampleOrphans(sample)
+                .build();
+    }
+
+    /**
+     * @return Names of referenced objects without their extension, which is
+     * all that is needed to match originals and their variants
+     */
+    private Set<String> loadReferences(LocalDateTime cutoff) {
+        return readOnlyTransaction.execute(status -> {
+            Set<String> names = new HashSet<>();
+            try (Stream<String> urls = blogPostRepository.streamImageUrls()) {
+                urls.map(OrphanFileCollectionServiceImpl::objectNameOf)
+                        .flatMap(Optional::stream)
+                        .forEach(name -> names.add(stem(name)));
+            }
+            try (Stream<String> urls = blogPostRepository.streamUploadedImageUrls()) {
+                urls.map(OrphanFileCollectionServiceImpl::objectNameOf)
+                        .flatMap(Optional::stream)
+                        .forEach(name -> names.add(stem(name)));
+            }
+            try (Stream<String> urls = userRepository.streamAvatarUrls()) {
+                urls.map(OrphanFileCollectionServiceImpl::objectNameOf)
+                        .flatMap(Optional::stream)
+                        .forEach(name -> names.add(stem(name)));
+            }
+            // Deduplicated content handed out after the cutoff may be about to
+            // be referenced by a post that is not saved yet
+            storedFileRepository.findObjectNamesUpdatedSince(cutoff)
+                    .forEach(name -> names.add(stem(name)));
+            return names;
+        });
+    }
+
+    private int deleteBatch(List<String> batch, LocalDateTime cutoff) throws IOException {
+        long startedAt = System.nanoTime();
+
+        // Drop deduplication entries first so the content is not handed out
+        // again; an entry reused since the scan survives and keeps its object
+        storedFileRepository.deleteByObjectNameInAndUpdatedAtBefore(batch, cutoff);
+        Set<String> reused = new HashSet<>(storedFileRepository.findObjectNamesIn(batch));
+        List<String> doomed = batch.stream()
+                .filter(name -> !reused.contains(name))
+                .toList();
+
+        storageBackend.delete(doomed);
+        doomed.forEach(diskObjectCache::evict);
+        throttle(doomed.size(), startedAt);
+        return doomed.size();
+    }
+
+    private void throttle(int deleted, long startedAt) {
+        long minimumNanos = TimeUnit.SECONDS.toNanos(deleted) / maxDeletesPerSecond;
+        long remainingNanos = minimumNanos - (System.nanoTime() - startedAt);
+        if (remainingNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static boolean isReferenced(String objectName, Set<String> referenced) {
+        if (referenced.contains(stem(objectName))) {
+            return true;
+        }
+        Matcher variant = VARIANT_SUFFIX.matcher(objectName);
+        return variant.find() && referenced.contains(stem(variant.replaceFirst("")));
+    }
+
+    /**
+     * Accepts both relative "/api/files/..." paths and absolute URLs written
+     * by older versions, and uploaded avatars under "/api/avatars/...".
+     * Anything else, e.g. an external avatar, is not ours.
+     */
+    private static Optional<String> objectNameOf(String url) {
+        String objectName;
+        int start = url.indexOf(FILES_PATH);
+        int avatarStart = url.indexOf(AvatarServiceImpl.AVATARS_PATH);
+        if (start >= 0) {
+            objectName = url.substring(start + FILES_PATH.length());
+        } else if (avatarStart >= 0) {
+            objectName = "avatars/" + url.substring(avatarStart + AvatarServiceImpl.AVATARS_PATH.length());
+        } else {
+            return Optional.empty();
+        }
+        int query = objectName.indexOf('?');
+        return Optional.of(query < 0 ? objectName : objectName.substring(0, query));
+    }
+
+    private static String stem(String objectName) {
+        int slash = objectName.lastIndexOf('/');
+        int dot = objectName.lastIndexOf('.');
+        return dot > slash ? objectName.substring(0, dot) : objectName;
+    }
+}
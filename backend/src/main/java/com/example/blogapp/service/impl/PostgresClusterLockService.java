@@ -0,0 +1,50 @@
+package com.example.blogapp.service.impl;
+
+import com.example.blogapp.service.ClusterLockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Uses PostgreSQL session-level advisory locks, so no lock table is needed
+ * and a crashed instance releases its locks when its connection drops. The
+ * lock belongs to a connection, so one is held for as long as the task runs.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostgresClusterLockService implements ClusterLockService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public <T> Optional<T> runExclusively(String name, Supplier<T> task) {
+        long key = name.hashCode();
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            if (!callLockFunction(connection, "pg_try_advisory_lock", key)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(task.get());
+            } finally {
+                callLockFunction(connection, "pg_advisory_unlock", key);
+            }
+        });
+    }
+
+    private static boolean callLockFunction(Connection connection, String function, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
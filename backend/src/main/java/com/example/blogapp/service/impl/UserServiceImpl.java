@@ -4,6 +4,8 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.exception.InvalidPasswordException;
 import com.example.blogapp.repository.UserRepository;
 import com.example.blogapp.service.UserService;
+import com.example.blogapp.util.MergePatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,18 +14,24 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
+    // The avatar is set by uploading one, so a profile can not be pointed
+    // at, and keep alive, a file that belongs to someone else
+    private static final Set<String> PROFILE_PATCH_FIELDS = Set.of("fullName", "bio");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        // Flush immediately so unique constraint violations surface to the caller
+        return userRepository.saveAndFlush(user);
     }
 
     @Override
@@ -31,6 +39,21 @@ public class UserServiceImpl implements UserService {
         return userRepository.save(user);
     }
 
+    @Override
+    public Optional<User> patchProfile(UUID id, JsonNode patch) {
+        MergePatch changes = MergePatch.of(patch, PROFILE_PATCH_FIELDS);
+        return userRepository.findById(id).map(user -> {
+            // Length limits as on UserDTO
+            if (changes.has("fullName")) {
+                user.setFullName(changes.text("fullName", 100));
+            }
+            if (changes.has("bio")) {
+                user.setBio(changes.text("bio", 500));
+            }
+            return userRepository.saveAndFlush(user);
+        });
+    }
+
     @Override
     public void deleteUser(UUID id) {
         userRepository.deleteById(id);
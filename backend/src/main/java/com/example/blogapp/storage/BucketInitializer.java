@@ -0,0 +1,118 @@
+package com.example.blogapp.storage;
+
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes sure the bucket exists, off the startup path. Attempts are retried
+ * with exponential backoff until MinIO answers, and isReady() reports the
+ * outcome to the readiness endpoint.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
+public class BucketInitializer {
+
+    private final MinioClient minioClient;
+    private final String bucket;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile boolean ready;
+    private volatile Instant readySince;
+    private volatile String lastError;
+
+    public BucketInitializer(
+            MinioClient minioClient,
+            @Value("${minio.bucket}") String bucket,
+            @Value("${minio.init.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${minio.init.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.minioClient = minioClient;
+        this.bucket = bucket;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "minio-bucket-init");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.execute(() -> attempt(initialBackoffMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bucket", bucket);
+        stats.put("ready", ready);
+        stats.put("readySince", readySince);
+        stats.put("attempts", attempts.get());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private void attempt(long backoffMs) {
+        attempts.incrementAndGet();
+        try {
+            ensureBucket();
+            readySince = Instant.now();
+            lastError = null;
+            ready = true;
+            log.info("Bucket {} is ready after {} attempt(s)", bucket, attempts.get());
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.warn("Bucket {} is not ready, retrying in {} ms: {}", bucket, backoffMs, e.getMessage());
+            try {
+                executor.schedule(
+                        () -> attempt(Math.min(backoffMs * 2, maxBackoffMs)),
+                        backoffMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                // Shutting down, nothing left to prepare the bucket for
+            }
+        }
+    }
+
+    private void ensureBucket() throws Exception {
+        if (minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+            return;
+        }
+        try {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+        } catch (ErrorResponseException e) {
+            // Another instance created it in the meantime
+            if (!"BucketAlreadyOwnedByYou".equals(e.errorResponse().code())) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.blogapp.storage;
+
+import java.nio.file.Path;
+
+/**
+ * An object held in the local disk cache together with the metadata needed
+ * to answer conditional and range requests without asking object storage.
+ */
+public record CachedObject(
+        String objectName,
+        Path path,
+        long size,
+        String etag,
+        long lastModified,
+        String contentType) {
+}
@@ -0,0 +1,278 @@
+package com.example.blogapp.storage;
+
+import com.example.blogapp.util.ObjectNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte-bounded LRU cache of immutable objects on local disk, in front of
+ * a remote storage backend. Only immutable objects (see {@link ObjectNames}) are cached, so a
+ * cached copy can not go stale. Concurrent misses for the same object share
+ * a single fetch.
+ */
+@Slf4j
+@Component
+public class DiskObjectCache {
+    // Evicted files stay on disk for a while so in-flight sendfile and
+    // transfer reads that already resolved the path can finish
+    private static final long DELETE_GRACE_MILLIS = 60_000;
+    // The configured directory may be shared, so the cache only ever writes
+    // to and clears a subdirectory of its own
+    private static final String OBJECTS_DIRECTORY = "objects";
+
+    private final StorageBackend storageBackend;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxObjectBytes;
+
+    private final LinkedHashMap<String, CachedObject> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<PendingDeletion> pendingDeletions = new ArrayDeque<>();
+    private final Map<String, CompletableFuture<CachedObject>> inFlight = new ConcurrentHashMap<>();
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong collapsedMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    public DiskObjectCache(
+            StorageBackend storageBackend,
+            @Value("${file.cache.enabled:true}") boolean enabled,
+            @Value("${file.cache.directory:${java.io.tmpdir}/blogapp-file-cache}") String directory,
+            @Value("${file.cache.max-bytes:1073741824}") long maxBytes,
+            @Value("${file.cache.max-object-bytes:10485760}") long maxObjectBytes) throws IOException {
+        this.storageBackend = storageBackend;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize().resolve(OBJECTS_DIRECTORY);
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = maxObjectBytes;
+
+        if (enabled) {
+            // Entry metadata lives in memory only, so start from an empty directory
+            FileSystemUtils.deleteRecursively(this.directory);
+            Files.createDirectories(this.directory);
+        }
+    }
+
+    public boolean isCacheable(String objectName) {
+        return enabled && ObjectNames.isImmutable(objectName);
+    }
+
+    /**
+     * @return Whether a copy of the object is on disk; never reads from storage
+     */
+    public boolean isCached(String objectName) {
+        return lookup(objectName) != null;
+    }
+
+    /**
+     * Returns the cached copy of an object, fetching it from storage on a miss.
+     *
+     * @param objectName The object name
+     * @return The cached object, or null if the object is too large to cache
+     * @throws IOException If the object can not be read from storage
+     */
+    public CachedObject getOrFetch(String objectName) throws IOException {
+        CachedObject cached = lookup(objectName);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<CachedObject> fetch = new CompletableFuture<>();
+        CompletableFuture<CachedObject> existing = inFlight.putIfAbsent(objectName, fetch);
+        if (existing != null) {
+            collapsedMisses.incrementAndGet();
+            return await(existing);
+        }
+
+        misses.incrementAndGet();
+        try {
+            CachedObject fetched = fetch(objectName);
+            fetch.complete(fetched);
+            return fetched;
+        } catch (IOException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(objectName, fetch);
+        }
+    }
+
+    /**
+     * Writes a byte range of a cached object with FileChannel.transferTo,
+     * which avoids copying through a Java heap buffer where the target
+     * channel allows it.
+     */
+    public void transfer(CachedObject object, long offset, long length, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(object.path(), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+        bytesServed.addAndGet(length);
+    }
+
+    /**
+     * Records bytes served by the container via sendfile, which bypasses
+     * {@link #transfer}.
+     */
+    public void recordSendfile(long length) {
+        bytesServed.addAndGet(length);
+    }
+
+    public void evict(String objectName) {
+        synchronized (this) {
+            CachedObject removed = entries.remove(objectName);
+            if (removed != null) {
+                currentBytes -= removed.size();
+                pendingDeletions.add(new PendingDeletion(removed.path(), System.currentTimeMillis()));
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get() + collapsedMisses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("sizeBytes", currentBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("collapsedMisses", collapsedMisses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.get());
+        // Every byte served from disk is a byte not read from MinIO
+        stats.put("bytesSaved", bytesServed.get());
+        return stats;
+    }
+
+    private synchronized CachedObject lookup(String objectName) {
+        return entries.get(objectName);
+    }
+
+    private CachedObject fetch(String objectName) throws IOException {
+        ObjectMetadata stat = storageBackend.stat(objectName)
+                .orElseThrow(() -> new NoSuchFileException(objectName));
+        if (stat.size() > maxObjectBytes || stat.size() > maxBytes) {
+            return null;
+        }
+
+        Path temp = directory.resolve(UUID.randomUUID() + ".tmp");
+        try (InputStream in = storageBackend.read(objectName)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Path target = directory.resolve(UUID.randomUUID().toString());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        CachedObject cached = new CachedObject(
+                objectName,
+                target,
+                stat.size(),
+                stat.etag(),
+                stat.lastModified(),
+                stat.contentType());
+        store(cached);
+        return cached;
+    }
+
+    private void store(CachedObject cached) {
+        synchronized (this) {
+            CachedObject previous = entries.put(cached.objectName(), cached);
+            if (previous != null) {
+                currentBytes -= previous.size();
+                pendingDeletions.add(new PendingDeletion(previous.path(), System.currentTimeMillis()));
+            }
+            currentBytes += cached.size();
+
+            Iterator<Map.Entry<String, CachedObject>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                CachedObject evicted = eldest.next().getValue();
+                if (evicted == cached) {
+                    continue;
+                }
+                eldest.remove();
+                currentBytes -= evicted.size();
+                evictions.incrementAndGet();
+                pendingDeletions.add(new PendingDeletion(evicted.path(), System.currentTimeMillis()));
+            }
+        }
+        deleteExpiredFiles();
+    }
+
+    private void deleteExpiredFiles() {
+        long cutoff = System.currentTimeMillis() - DELETE_GRACE_MILLIS;
+        while (true) {
+            PendingDeletion next;
+            synchronized (this) {
+                next = pendingDeletions.peekFirst();
+                if (next == null || next.evictedAt() > cutoff) {
+                    return;
+                }
+                pendingDeletions.pollFirst();
+            }
+            try {
+                Files.deleteIfExists(next.path());
+            } catch (IOException e) {
+                log.warn("Could not delete evicted cache file {}", next.path(), e);
+            }
+        }
+    }
+
+    private static CachedObject await(CompletableFuture<CachedObject> fetch) throws IOException {
+        try {
+            return fetch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    private record PendingDeletion(Path path, long evictedAt) {
+    }
+}
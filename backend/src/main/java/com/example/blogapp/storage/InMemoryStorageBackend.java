@@ -0,0 +1,237 @@
+package com.example.blogapp.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Object storage held in memory, for tests and benchmarks that should not
+ * need a MinIO server. Every operation can be slowed down or made to fail
+ * with {@link Faults}; the random source is seeded, so a run is repeatable.
+ * Not a Spring bean: construct it where it is needed.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * @param latency        Added before every operation, like a round trip
+     * @param jitter         Upper bound of a uniformly random extra delay
+     * @param bytesPerSecond Transfer rate of reads and writes, or 0 for unlimited
+     * @param errorRate      Share of operations failing with an IOException
+     * @param seed           Seed for the jitter and error decisions
+     */
+    public record Faults(Duration latency, Duration jitter, long bytesPerSecond, double errorRate, long seed) {
+        public static final Faults NONE = new Faults(Duration.ZERO, Duration.ZERO, 0, 0, 0);
+    }
+
+    private record StoredObject(byte[] content, String etag, long lastModified, String contentType) {
+    }
+
+    private final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong injectedFailures = new AtomicLong();
+
+    private volatile Faults faults;
+    private volatile Random random;
+
+    public InMemoryStorageBackend() {
+        this(Faults.NONE);
+    }
+
+    public InMemoryStorageBackend(Faults faults) {
+        setFaults(faults);
+    }
+
+    /**
+     * Replaces the fault settings, e.g. to let a test fail only after setup.
+     */
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+        this.random = new Random(faults.seed());
+    }
+
+    public long getOperations() {
+        return operations.get();
+    }
+
+    public long getInjectedFailures() {
+        return injectedFailures.get();
+    }
+
+    @Override
+    public Optional<ObjectMetadata> stat(String objectName) throws IOException {
+        roundTrip("stat", objectName);
+        return Optional.ofNullable(objects.get(objectName))
+                .map(object -> new ObjectMetadata(
+                        object.content().length, object.etag(), object.lastModified(), object.contentType()));
+    }
+
+    @Override
+    public InputStream read(String objectName) throws IOException {
+        roundTrip("read", objectName);
+        return new ThrottledInputStream(new ByteArrayInputStream(require(objectName).content()));
+    }
+
+    @Override
+    public void transfer(String objectName, long offset, long length, OutputStream out) throws IOException {
+        roundTrip("read", objectName);
+        byte[] content = require(objectName).content();
+        if (offset < 0 || length < 0 || offset + length > content.length) {
+            throw new IOException("Range " + offset + "+" + length + " outside object " + objectName);
+        }
+        long startedAt = System.nanoTime();
+        long sent = 0;
+        while (sent < length) {
+            int chunk = (int) Math.min(CHUNK_SIZE, length - sent);
+            out.write(content, (int) (offset + sent), chunk);
+            sent += chunk;
+            pace(sent, startedAt);
+        }
+    }
+
+    @Override
+    public void write(String objectName, InputStream content, long size, String contentType) throws IOException {
+        roundTrip("write", objectName);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.max(0, Math.min(size, Integer.MAX_VALUE)));
+        try (InputStream in = new ThrottledInputStream(content)) {
+            in.transferTo(buffer);
+        }
+        byte[] bytes = buffer.toByteArray();
+        if (size >= 0 && bytes.length != size) {
+            throw new IOException("Expected " + size + " bytes for " + objectName + " but got " + bytes.length);
+        }
+        store(objectName, bytes, contentType);
+    }
+
+    @Override
+    public void compose(String objectName, List<String> sources, String contentType) throws IOException {
+        roundTrip("compose", objectName);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (String source : sources) {
+            buffer.writeBytes(require(source).content());
+        }
+        store(objectName, buffer.toByteArray(), contentType);
+    }
+
+    @Override
+    public Stream<ObjectSummary> list(String prefix) throws IOException {
+        roundTrip("list", prefix);
+        // A view of the sorted map, so objects written during the listing may show up
+        return objects.subMap(prefix, prefix + Character.MAX_VALUE).entrySet().stream()
+                .map(entry -> new ObjectSummary(
+                        entry.getKey(), entry.getValue().content().length, entry.getValue().lastModified()));
+    }
+
+    @Override
+    public void delete(Collection<String> objectNames) throws IOException {
+        roundTrip("delete", String.join(",", objectNames));
+        objectNames.forEach(objects::remove);
+    }
+
+    private void store(String objectName, byte[] content, String contentType) throws IOException {
+        try {
+            String etag = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+            objects.put(objectName, new StoredObject(content, etag, System.currentTimeMillis(), contentType));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private StoredObject require(String objectName) throws IOException {
+        StoredObject object = objects.get(objectName);
+        if (object == null) {
+            throw new IOException("No such object " + objectName);
+        }
+        return object;
+    }
+
+    /**
+     * Waits for the configured latency and then decides whether the
+     * operation fails.
+     */
+    private void roundTrip(String action, String objectName) throws IOException {
+        operations.incrementAndGet();
+        Faults current = faults;
+        long delayNanos = current.latency().toNanos();
+        boolean fail;
+        synchronized (this) {
+            long jitterNanos = current.jitter().toNanos();
+            if (jitterNanos > 0) {
+                delayNanos += (long) (random.nextDouble() * jitterNanos);
+            }
+            fail = current.errorRate() > 0 && random.nextDouble() < current.errorRate();
+        }
+        sleep(delayNanos);
+        if (fail) {
+            injectedFailures.incrementAndGet();
+            throw new IOException("Injected failure: " + action + " " + objectName);
+        }
+    }
+
+    /**
+     * Holds the caller back until the bytes moved so far fit the configured rate.
+     */
+    private void pace(long bytes, long startedAt) throws IOException {
+        long bytesPerSecond = faults.bytesPerSecond();
+        if (bytesPerSecond > 0) {
+            long dueNanos = TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond;
+            sleep(dueNanos - (System.nanoTime() - startedAt));
+        }
+    }
+
+    private static void sleep(long nanos) throws IOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while simulating storage delay");
+        }
+    }
+
+    private class ThrottledInputStream extends FilterInputStream {
+        private final long startedAt = System.nanoTime();
+        private long bytesRead;
+
+        ThrottledInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                pace(++bytesRead, startedAt);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, Math.min(len, CHUNK_SIZE));
+            if (n > 0) {
+                bytesRead += n;
+                pace(bytesRead, startedAt);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.blogapp.storage;
+
+import com.example.blogapp.util.ContentTypeDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects as plain files below file.upload-dir, with the object name
+ * as relative path. Reads go through FileChannel.transferTo and whole files
+ * can be handed to the container for sendfile, so serving never copies
+ * through the Java heap.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+    // Writes land in a hidden file next to the target and are moved into
+    // place, so readers never see a partial object
+    private static final String TEMP_PREFIX = ".";
+
+    private final Path root;
+
+    public LocalStorageBackend(@Value("${file.upload-dir:uploads}") String uploadDir) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public Optional<ObjectMetadata> stat(String objectName) throws IOException {
+        Path file;
+        BasicFileAttributes attributes;
+        try {
+            file = resolve(objectName);
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        return Optional.of(new ObjectMetadata(
+                attributes.size(),
+                Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()),
+                lastModified,
+                detectContentType(file)));
+    }
+
+    @Override
+    public InputStream read(String objectName) throws IOException {
+        return Files.newInputStream(resolve(objectName));
+    }
+
+    @Override
+    public void transfer(String objectName, long offset, long length, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(resolve(objectName), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    @Override
+    public void write(String objectName, InputStream content, long size, String contentType) throws IOException {
+        Path target = resolve(objectName);
+        Path temp = tempFileFor(target);
+        try {
+            long written = Files.copy(content, temp);
+            if (written != size) {
+                throw new IOException("Expected " + size + " bytes for " + objectName + " but got " + written);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void compose(String objectName, List<String> sources, String contentType) throws IOException {
+        Path target = resolve(objectName);
+        Path temp = tempFileFor(target);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (String source : sources) {
+                    try (FileChannel in = FileChannel.open(resolve(source), StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            long written = in.transferTo(position, size - position, out);
+                            if (written <= 0) {
+                                throw new IOException("Could not copy " + source + " into " + objectName);
+                            }
+                            position += written;
+                        }
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Stream<ObjectSummary> list(String prefix) throws IOException {
+        // Only the directory the prefix points into has to be walked
+        int lastSlash = prefix.lastIndexOf('/');
+        Path directory = lastSlash < 0 ? root : resolve(prefix.substring(0, lastSlash));
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.walk(directory)
+                .filter(file -> !file.getFileName().toString().startsWith(TEMP_PREFIX))
+                .filter(file -> root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/")
+                        .startsWith(prefix))
+                .flatMap(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (!attributes.isRegularFile()) {
+                            return Stream.empty();
+                        }
+                        return Stream.of(new ObjectSummary(
+                                root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"),
+                                attributes.size(),
+                                attributes.lastModifiedTime().toMillis()));
+                    } catch (NoSuchFileException e) {
+                        // Deleted while walking
+                        return Stream.empty();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void delete(Collection<String> objectNames) throws IOException {
+        for (String objectName : objectNames) {
+            Files.deleteIfExists(resolve(objectName));
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String objectName) {
+        try {
+            Path file = resolve(objectName);
+            return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path resolve(String objectName) throws IOException {
+        Path file = root.resolve(objectName).normalize();
+        if (!file.startsWith(root)) {
+            throw new NoSuchFileException(objectName);
+        }
+        return file;
+    }
+
+    private static Path tempFileFor(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return target.resolveSibling(TEMP_PREFIX + UUID.randomUUID() + ".tmp");
+    }
+
+    /**
+     * Files carry no metadata of their own, but every accepted upload has a
+     * recognisable signature. Unknown types fall back to the file extension.
+     */
+    private static String detectContentType(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] header = in.readNBytes(ContentTypeDetector.HEADER_LENGTH);
+            return ContentTypeDetector.detect(header, header.length).orElse(null);
+        }
+    }
+}
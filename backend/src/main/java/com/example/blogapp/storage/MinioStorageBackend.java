@@ -0,0 +1,228 @@
+package com.example.blogapp.storage;
+
+import com.example.blogapp.util.BufferPool;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
+public class MinioStorageBackend implements StorageBackend {
+
+    // 64 KB buffers, at most 64 kept around between requests
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final MinioClient minioClient;
+    private final String bucket;
+    private final BucketInitializer bucketInitializer;
+    private final StorageGuard storageGuard;
+    private final BufferPool bufferPool = new BufferPool(MAX_POOLED_BUFFERS, BUFFER_SIZE);
+
+    public MinioStorageBackend(
+            MinioClient minioClient,
+            BucketInitializer bucketInitializer,
+            StorageGuard storageGuard,
+            @Value("${minio.bucket}") String bucket) {
+        this.minioClient = minioClient;
+        this.bucketInitializer = bucketInitializer;
+        this.storageGuard = storageGuard;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public Optional<ObjectMetadata> stat(String objectName) throws IOException {
+        return storageGuard.call("stat", () -> statUnguarded(objectName));
+    }
+
+    private Optional<ObjectMetadata> statUnguarded(String objectName) throws IOException {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .build());
+            return Optional.of(new ObjectMetadata(
+                    stat.size(),
+                    stat.etag(),
+                    stat.lastModified().toInstant().toEpochMilli(),
+                    stat.contentType()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw failure("stat", objectName, e);
+        } catch (Exception e) {
+            throw failure("stat", objectName, e);
+        }
+    }
+
+    @Override
+    public InputStream read(String objectName) throws IOException {
+        // Guards opening the stream; reading it is up to the caller
+        return storageGuard.call("read", () -> {
+            try {
+                return minioClient.getObject(GetObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .build());
+            } catch (Exception e) {
+                throw failure("read", objectName, e);
+            }
+        });
+    }
+
+    @Override
+    public void transfer(String objectName, long offset, long length, OutputStream out) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        GetObjectArgs.Builder args = GetObjectArgs.builder()
+                .bucket(bucket)
+                .object(objectName);
+        if (offset > 0) {
+            args.offset(offset);
+        }
+        args.length(length);
+
+        // Only opening the stream holds a permit, so a slow client can not
+        // keep one for the whole download
+        InputStream content = storageGuard.call("transfer", () -> {
+            try {
+                return minioClient.getObject(args.build());
+            } catch (Exception e) {
+                throw failure("read", objectName, e);
+            }
+        });
+        try (InputStream in = content) {
+            bufferPool.copy(in, out);
+        }
+    }
+
+    @Override
+    public void write(String objectName, InputStream content, long size, String contentType) throws IOException {
+        storageGuard.call("write", () -> {
+            try {
+                return minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .stream(content, size, -1)
+                        .contentType(contentType)
+                        .build());
+            } catch (Exception e) {
+                throw failure("write", objectName, e);
+            }
+        });
+    }
+
+    /**
+     * Runs as a server-side multipart copy, so no bytes pass through the JVM.
+     * Every source but the last must be at least 5 MiB.
+     */
+    @Override
+    public void compose(String objectName, List<String> sources, String contentType) throws IOException {
+        storageGuard.call("compose", () -> {
+            try {
+                return minioClient.composeObject(ComposeObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .sources(sources.stream()
+                                .map(source -> ComposeSource.builder()
+                                        .bucket(bucket)
+                                        .object(source)
+                                        .build())
+                                .toList())
+                        .headers(Map.of("Content-Type", contentType))
+                        .build());
+            } catch (Exception e) {
+                throw failure("compose", objectName, e);
+            }
+        });
+    }
+
+    @Override
+    public Stream<ObjectSummary> list(String prefix) {
+        // The iterable fetches the next page of up to 1000 keys on demand and
+        // reports a failed fetch from Result.get, so each item is guarded
+        Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .recursive(true)
+                .build());
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(result -> {
+                    try {
+                        Item item = storageGuard.call("list", () -> {
+                            try {
+                                return result.get();
+                            } catch (Exception e) {
+                                throw failure("list", prefix, e);
+                            }
+                        });
+                        return new ObjectSummary(
+                                item.objectName(),
+                                item.size(),
+                                item.lastModified().toInstant().toEpochMilli());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void delete(Collection<String> objectNames) throws IOException {
+        List<DeleteObject> objects = objectNames.stream().map(DeleteObject::new).toList();
+        storageGuard.call("delete", () -> {
+            // The delete is lazy and only runs while the results are consumed
+            for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucket)
+                    .objects(objects)
+                    .build())) {
+                try {
+                    DeleteError error = result.get();
+                    log.warn("Could not remove object {}: {}", error.objectName(), error.message());
+                } catch (Exception e) {
+                    log.warn("Could not remove objects", e);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isReady() {
+        return bucketInitializer.isReady();
+    }
+
+    private static IOException failure(String action, String objectName, Exception e) {
+        return e instanceof IOException ioException
+                ? ioException
+                : new IOException("Could not " + action + " object " + objectName, e);
+    }
+}
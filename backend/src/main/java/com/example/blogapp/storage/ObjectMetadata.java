@@ -0,0 +1,14 @@
+package com.example.blogapp.storage;
+
+/**
+ * What a storage backend knows about an object without reading it.
+ *
+ * @param lastModified Epoch milliseconds
+ * @param contentType  May be null when the backend does not record one
+ */
+public record ObjectMetadata(
+        long size,
+        String etag,
+        long lastModified,
+        String contentType) {
+}
@@ -0,0 +1,12 @@
+package com.example.blogapp.storage;
+
+/**
+ * One entry of a storage listing.
+ *
+ * @param lastModified Epoch milliseconds
+ */
+public record ObjectSummary(
+        String name,
+        long size,
+        long lastModified) {
+}
@@ -0,0 +1,76 @@
+package com.example.blogapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Where uploaded files are kept. Selected with storage.backend: "minio"
+ * (default) or "local", which needs no object storage at all.
+ */
+public interface StorageBackend {
+
+    /**
+     * @return The object's metadata, or empty if there is no such object
+     * @throws IOException If the backend can not be reached
+     */
+    Optional<ObjectMetadata> stat(String objectName) throws IOException;
+
+    /**
+     * Opens the whole object for reading. The caller closes the stream.
+     */
+    InputStream read(String objectName) throws IOException;
+
+    /**
+     * Writes a byte range of an object to the output stream.
+     */
+    void transfer(String objectName, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Stores an object, replacing any previous content under that name.
+     */
+    void write(String objectName, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * Stores the concatenation of the source objects under a new name. The
+     * sources are left in place.
+     */
+    void compose(String objectName, List<String> sources, String contentType) throws IOException;
+
+    /**
+     * Lists all objects whose name starts with the prefix. The listing is
+     * read page by page as the stream is consumed, and the stream must be
+     * closed. Failures while reading surface as UncheckedIOException.
+     */
+    Stream<ObjectSummary> list(String prefix) throws IOException;
+
+    /**
+     * Removes objects; names that do not exist are ignored.
+     */
+    void delete(Collection<String> objectNames) throws IOException;
+
+    default void delete(String objectName) throws IOException {
+        delete(List.of(objectName));
+    }
+
+    /**
+     * @return The object's file when the backend keeps objects on local disk,
+     * so it can be handed to the container for sendfile
+     */
+    default Optional<Path> localPath(String objectName) {
+        return Optional.empty();
+    }
+
+    /**
+     * @return false while the backend is still being prepared in the
+     * background; requests made until then may fail
+     */
+    default boolean isReady() {
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.blogapp.storage;
+
+import com.example.blogapp.util.CircuitBreaker;
+import com.example.blogapp.util.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker and bulkhead around calls to MinIO. While MinIO is failing
+ * callers get a StorageUnavailableException at once instead of each waiting
+ * for a timeout, and no more than max-concurrent calls are in progress, so a
+ * slow MinIO can not tie up every request thread.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
+public class StorageGuard {
+
+    @FunctionalInterface
+    public interface StorageCall<T> {
+        T call() throws Exception;
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    public StorageGuard(
+            @Value("${storage.circuit.window-size:20}") int windowSize,
+            @Value("${storage.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${storage.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${storage.circuit.open-duration-ms:10000}") long openDurationMs,
+            @Value("${storage.circuit.half-open-calls:3}") int halfOpenCalls,
+            @Value("${storage.bulkhead.max-concurrent:64}") int maxConcurrent,
+            @Value("${storage.bulkhead.max-wait-ms:100}") long maxWaitMs) {
+        this.circuitBreaker = new CircuitBreaker(
+                windowSize, minimumCalls, failureRateThreshold, openDurationMs, halfOpenCalls);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public <T> T call(String operation, StorageCall<T> call) throws IOException {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new StorageUnavailableException(
+                    "Storage circuit is open, " + operation + " not attempted",
+                    circuitBreaker.getRemainingOpenMillis());
+        }
+        try {
+            if (!bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                circuitBreaker.onCancelled();
+                rejectedByBulkhead.increment();
+                throw new StorageUnavailableException(
+                        "Too many storage calls in progress, " + operation + " not attempted", maxWaitMs);
+            }
+        } catch (InterruptedException e) {
+            circuitBreaker.onCancelled();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to call storage");
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            T result = call.call();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            throw e instanceof IOException ioException
+                    ? ioException
+                    : new IOException("Could not " + operation + " in storage", e);
+        } finally {
+            bulkhead.release();
+            latencies.computeIfAbsent(operation, name -> new LatencyHistogram()).record(startedAt);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", circuitBreaker.getStats());
+        Map<String, Object> bulkheadStats = new LinkedHashMap<>();
+        bulkheadStats.put("maxConcurrent", maxConcurrent);
+        bulkheadStats.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        bulkheadStats.put("rejected", rejectedByBulkhead.sum());
+        stats.put("bulkhead", bulkheadStats);
+        Map<String, Object> latencySnapshot = new TreeMap<>();
+        latencies.forEach((operation, histogram) -> latencySnapshot.put(operation, histogram.snapshot()));
+        stats.put("latency", latencySnapshot);
+        return stats;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.blogapp.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs blocking storage calls on virtual threads, so a slow storage node
+ * parks cheap virtual threads instead of holding Tomcat request threads
+ * that other endpoints need. Controllers return the future and Spring MVC
+ * completes the response asynchronously.
+ */
+@Component
+public class StorageTaskExecutor {
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storage-", 0).factory());
+    private final long timeoutMs;
+
+    public StorageTaskExecutor(@Value("${storage.call-timeout-ms:30000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * @return A future completed with the task's result or exception, or with
+     * a TimeoutException if the task takes longer than storage.call-timeout-ms;
+     * the task is then interrupted
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.blogapp.storage;
+
+import java.io.IOException;
+
+/**
+ * A storage call that was not attempted because the circuit is open or too
+ * many calls are already in progress.
+ */
+public class StorageUnavailableException extends IOException {
+    private final long retryAfterMillis;
+
+    public StorageUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
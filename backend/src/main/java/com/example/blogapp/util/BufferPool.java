@@ -0,0 +1,53 @@
+package com.example.blogapp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of fixed-size byte buffers for stream copies, so serving a
+ * file does not allocate a fresh buffer per request. When the pool is empty a
+ * temporary buffer is allocated; it is only kept if there is room to return it.
+ */
+public class BufferPool {
+    private final BlockingQueue<byte[]> buffers;
+    private final int bufferSize;
+
+    public BufferPool(int maxBuffers, int bufferSize) {
+        this.buffers = new ArrayBlockingQueue<>(maxBuffers);
+        this.bufferSize = bufferSize;
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Copies the whole input stream to the output stream with a pooled buffer
+     *
+     * @return The number of bytes copied
+     */
+    public long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = acquire();
+        try {
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                total += read;
+            }
+            return total;
+        } finally {
+            release(buffer);
+        }
+    }
+}
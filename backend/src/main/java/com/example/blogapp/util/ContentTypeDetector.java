@@ -0,0 +1,92 @@
+package com.example.blogapp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Identifies the file types we accept from their leading magic bytes, so
+ * neither the file name nor the client-supplied Content-Type is trusted.
+ */
+public final class ContentTypeDetector {
+    /**
+     * Number of leading bytes needed to tell all supported types apart
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PDF = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private ContentTypeDetector() {
+    }
+
+    /**
+     * @param header The first bytes of a file
+     * @param length How many of them are valid
+     * @return The detected content type, or empty for unsupported types
+     */
+    public static Optional<String> detect(byte[] header, int length) {
+        if (startsWith(header, length, JPEG, 0)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(header, length, PNG, 0)) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(header, length, GIF87A, 0) || startsWith(header, length, GIF89A, 0)) {
+            return Optional.of("image/gif");
+        }
+        if (startsWith(header, length, RIFF, 0) && startsWith(header, length, WEBP, 8)) {
+            return Optional.of("image/webp");
+        }
+        if (startsWith(header, length, PDF, 0)) {
+            return Optional.of("application/pdf");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Peeks at the start of a stream without consuming it.
+     *
+     * @param in A stream supporting mark/reset, e.g. a BufferedInputStream
+     * @return The detected content type, or empty for unsupported types
+     * @throws IOException If the stream can not be read
+     */
+    public static Optional<String> detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset");
+        }
+        in.mark(HEADER_LENGTH);
+        try {
+            byte[] header = in.readNBytes(HEADER_LENGTH);
+            return detect(header, header.length);
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * @return The file extension for a content type returned by detect()
+     */
+    public static String extensionFor(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            case "image/webp" -> ".webp";
+            case "application/pdf" -> ".pdf";
+            default -> "";
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] magic, int offset) {
+        return length >= offset + magic.length
+                && Arrays.equals(header, offset, offset + magic.length, magic, 0, magic.length);
+    }
+}
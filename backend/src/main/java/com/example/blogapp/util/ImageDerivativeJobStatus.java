@@ -0,0 +1,11 @@
+package com.example.blogapp.util;
+
+/**
+ * Enum for image derivative job status values
+ */
+public enum ImageDerivativeJobStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED;
+}
@@ -0,0 +1,83 @@
+package com.example.blogapp.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histogram with fixed millisecond buckets. Percentiles
+ * are reported as the upper bound of the bucket they fall into.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    // One more bucket than bounds, for everything slower than the last bound
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one call that started at the given System.nanoTime() value
+     */
+    public void record(long startedAtNanos) {
+        long elapsed = System.nanoTime() - startedAtNanos;
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public Map<String, Object> snapshot() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", total);
+        snapshot.put("p50Millis", percentile(counts, total, 0.50));
+        snapshot.put("p90Millis", percentile(counts, total, 0.90));
+        snapshot.put("p99Millis", percentile(counts, total, 0.99));
+        snapshot.put("maxMillis", maxNanos.get() / 1_000_000.0);
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            histogram.put("<" + BOUNDS_MILLIS[i] + "ms", counts[i]);
+        }
+        histogram.put(">=" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", counts[BOUNDS_MILLIS.length]);
+        snapshot.put("buckets", histogram);
+        return snapshot;
+    }
+
+    /**
+     * @return The bucket's upper bound, or null when there is no data or
+     * the percentile falls into the open-ended last bucket
+     */
+    private static Long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.blogapp.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A JSON Merge Patch (RFC 7396) document against a flat resource. A member
+ * that is absent leaves the field alone, null clears it and any other value
+ * replaces it; arrays are replaced as a whole. Malformed values are reported
+ * as IllegalArgumentException, which the API answers with 400.
+ */
+public final class MergePatch {
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final JsonNode document;
+
+    private MergePatch(JsonNode document) {
+        this.document = document;
+    }
+
+    /**
+     * @param fields The members the resource accepts; any other member is
+     * rejected rather than silently ignored
+     */
+    public static MergePatch of(JsonNode document, Set<String> fields) {
+        if (document == null || !document.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        Iterator<String> names = document.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!fields.contains(name)) {
+                throw new IllegalArgumentException("Field '" + name + "' cannot be patched");
+            }
+        }
+        return new MergePatch(document);
+    }
+
+    public boolean has(String field) {
+        return document.has(field);
+    }
+
+    /**
+     * @return The text, or null if the patch clears the field
+     */
+    public String text(String field) {
+        JsonNode value = document.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("Field '" + field + "' must be a string");
+        }
+        return value.asText();
+    }
+
+    /**
+     * Patches bypass the bean validation of the request DTO, so fields the
+     * DTO limits in length are read with the same limit.
+     *
+     * @return The text, or null if the patch clears the field
+     */
+    public String text(String field, int maxLength) {
+        String value = text(field);
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException("Field '" + field + "' cannot exceed " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    /**
+     * For fields that cannot be cleared.
+     */
+    public String requiredText(String field) {
+        String value = text(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Field '" + field + "' cannot be empty");
+        }
+        return value;
+    }
+
+    public String requiredText(String field, int minLength, int maxLength) {
+        String value = requiredText(field);
+        if (value.length() < minLength || value.length() > maxLength) {
+            throw new IllegalArgumentException(
+                    "Field '" + field + "' must be between " + minLength + " and " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    public Long number(String field) {
+        JsonNode value = document.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isIntegralNumber() || !value.canConvertToLong()) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an integer");
+        }
+        return value.asLong();
+    }
+
+    public LocalDateTime dateTime(String field) {
+        String value = text(field);
+        try {
+            return value == null ? null : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an ISO-8601 date and time");
+        }
+    }
+
+    public <E extends Enum<E>> E enumValue(String field, Class<E> type) {
+        String value = requiredText(field);
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for field '" + field + "'");
+        }
+    }
+
+    /**
+     * @return The "id" members of an array of objects, as sent for tags; an
+     * empty list if the patch clears the field
+     */
+    public List<UUID> ids(String field) {
+        JsonNode value = document.get(field);
+        List<UUID> ids = new ArrayList<>();
+        if (value == null || value.isNull()) {
+            return ids;
+        }
+        if (!value.isArray()) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an array");
+        }
+        for (JsonNode element : value) {
+            JsonNode id = element.get("id");
+            if (id == null || !id.isTextual()) {
+                throw new IllegalArgumentException("Every element of '" + field + "' needs an id");
+            }
+            try {
+                ids.add(UUID.fromString(id.asText()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid id '" + id.asText() + "' in '" + field + "'");
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.blogapp.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Naming rules for objects in the file bucket.
+ */
+public final class ObjectNames {
+    // UUID or SHA-256 file names, optionally with an image width suffix and
+    // an extension. Such objects are never overwritten.
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile(
+            "(^|.*/)([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}|[0-9a-f]{64})"
+            + "(-w[0-9]+)?(\\.[A-Za-z0-9]+)?$");
+
+    // Deduplicated uploads are named by the SHA-256 of their content
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("(^|.*/)[0-9a-f]{64}(\\.[A-Za-z0-9]+)?$");
+
+    private ObjectNames() {
+    }
+
+    /**
+     * @return true if the content behind this name can never change
+     */
+    public static boolean isImmutable(String objectName) {
+        return IMMUTABLE_NAME.matcher(objectName).matches();
+    }
+
+    /**
+     * @return true if the object is deduplicated content, which may be shared
+     * and is reference-counted in stored_files
+     */
+    public static boolean isContentAddressed(String objectName) {
+        return CONTENT_ADDRESSED_NAME.matcher(objectName).matches();
+    }
+}
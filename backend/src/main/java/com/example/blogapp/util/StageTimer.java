@@ -0,0 +1,47 @@
+package com.example.blogapp.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe running count, total and maximum duration per named stage.
+ */
+public class StageTimer {
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    /**
+     * Records one run of a stage that started at the given System.nanoTime() value
+     */
+    public void record(String stage, long startedAtNanos) {
+        long elapsed = System.nanoTime() - startedAtNanos;
+        Stage timings = stages.computeIfAbsent(stage, name -> new Stage());
+        timings.count.increment();
+        timings.totalNanos.add(elapsed);
+        timings.maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        stages.forEach((name, timings) -> {
+            long count = timings.count.sum();
+            long total = timings.totalNanos.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", count);
+            values.put("totalMillis", total / 1_000_000.0);
+            values.put("avgMillis", count == 0 ? 0.0 : total / 1_000_000.0 / count);
+            values.put("maxMillis", timings.maxNanos.get() / 1_000_000.0);
+            snapshot.put(name, values);
+        });
+        return snapshot;
+    }
+
+    private static final class Stage {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.blogapp.util;
+
+/**
+ * Enum for user role values. Registration always gives USER; ADMIN is
+ * granted in the database and opens /api/admin/**.
+ */
+public enum UserRole {
+    USER,
+    ADMIN;
+}
@@ -0,0 +1,174 @@
+package com.example.blogapp.config;
+
+import com.example.blogapp.entity.User;
+import com.example.blogapp.security.JwtAuthenticationFilter;
+import com.example.blogapp.security.JwtService;
+import com.example.blogapp.util.UserRole;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the real filter chains against a probe endpoint that reports the
+ * principal. Anonymous public reads must be served by the lightweight
+ * chain without JwtAuthenticationFilter; the same GET with a Bearer token
+ * must still be authenticated by the main chain. Upload sessions under a
+ * post and admin endpoints are never public.
+ */
+@WebMvcTest(controllers = SecurityConfigTest.ProbeController.class)
+@Import({ SecurityConfig.class, PasswordConfig.class, SecurityConfigTest.ProbeController.class })
+class SecurityConfigTest {
+
+    private static final String PROBE_PATH = "/api/posts/probe";
+    private static final String UPLOAD_PROBE_PATH = "/api/posts/1/image/uploads/probe";
+    private static final String ADMIN_PROBE_PATH = "/api/admin/storage/probe";
+    private static final String TOKEN = "valid-token";
+    private static final String ADMIN_TOKEN = "admin-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        User alice = new User();
+        alice.setUsername("alice");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(jwtService.extractUsername(TOKEN)).thenReturn("alice");
+        when(jwtService.isTokenValid(eq(TOKEN), any(User.class))).thenReturn(true);
+
+        User root = new User();
+        root.setUsername("root");
+        root.setRole(UserRole.ADMIN);
+        when(userDetailsService.loadUserByUsername("root")).thenReturn(root);
+        when(jwtService.extractUsername(ADMIN_TOKEN)).thenReturn("root");
+        when(jwtService.isTokenValid(eq(ADMIN_TOKEN), any(User.class))).thenReturn(true);
+    }
+
+    @Test
+    void anonymousPublicRead_ShouldSkipJwtFilter() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROBE_PATH);
+        request.setServletPath(PROBE_PATH);
+
+        // Act
+        List<Filter> filters = filtersFor(request);
+
+        // Assert
+        assertTrue(filters.stream().noneMatch(JwtAuthenticationFilter.class::isInstance));
+        mockMvc.perform(get(PROBE_PATH))
+                .andExpect(status().isOk())
+                .andExpect(content().string("anonymous"));
+        verifyNoInteractions(jwtService, userDetailsService);
+    }
+
+    @Test
+    void publicReadWithBearerToken_ShouldStillAuthenticate() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROBE_PATH);
+        request.setServletPath(PROBE_PATH);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN);
+
+        // Act
+        List<Filter> filters = filtersFor(request);
+
+        // Assert
+        assertTrue(filters.stream().anyMatch(JwtAuthenticationFilter.class::isInstance));
+        mockMvc.perform(get(PROBE_PATH).header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().string("alice"));
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+
+    @Test
+    void anonymousWrite_ShouldBeRejectedByMainChain() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post(PROBE_PATH))
+                .andExpect(status().isForbidden());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void anonymousUploadSessionRead_ShouldBeRejectedByMainChain() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", UPLOAD_PROBE_PATH);
+        request.setServletPath(UPLOAD_PROBE_PATH);
+
+        // Act
+        List<Filter> filters = filtersFor(request);
+
+        // Assert
+        assertTrue(filters.stream().anyMatch(JwtAuthenticationFilter.class::isInstance));
+        mockMvc.perform(get(UPLOAD_PROBE_PATH))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(UPLOAD_PROBE_PATH).header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().string("alice"));
+    }
+
+    @Test
+    void adminEndpoint_WithUserRole_ShouldBeForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get(ADMIN_PROBE_PATH).header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminEndpoint_WithAdminRole_ShouldBeAllowed() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get(ADMIN_PROBE_PATH).header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().string("root"));
+    }
+
+    private List<Filter> filtersFor(MockHttpServletRequest request) {
+        return filterChainProxy.getFilterChains().stream()
+                .filter(chain -> chain.matches(request))
+                .findFirst()
+                .map(SecurityFilterChain::getFilters)
+                .orElseThrow();
+    }
+
+    @RestController
+    static class ProbeController {
+
+        @GetMapping({ PROBE_PATH, UPLOAD_PROBE_PATH, ADMIN_PROBE_PATH })
+        String principal() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null ? "anonymous" : authentication.getName();
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.example.blogapp.controller;
 import com.example.blogapp.config.TestSecurityConfig;
 import com.example.blogapp.dto.UserDTO;
 import com.example.blogapp.dto.auth.AuthResponse;
+import com.example.blogapp.dto.auth.AvailabilityResponse;
 import com.example.blogapp.dto.auth.LoginRequest;
 import com.example.blogapp.dto.auth.RegisterRequest;
 import com.example.blogapp.service.AuthService;
+import com.example.blogapp.service.AvailabilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +41,9 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private AvailabilityService availabilityService;
+
     private RegisterRequest registerRequest;
     private LoginRequest loginRequest;
     private AuthResponse authResponse;
@@ -140,4 +146,22 @@ class AuthControllerTest {
         mockMvc.perform(post("/api/auth/logout"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkAvailability_WithUsernameAndEmail_ShouldReturnAvailability() throws Exception {
+        // Arrange
+        when(availabilityService.checkAvailability("testuser", "test@example.com"))
+                .thenReturn(AvailabilityResponse.builder()
+                        .usernameAvailable(false)
+                        .emailAvailable(true)
+                        .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/auth/availability")
+                .param("username", "testuser")
+                .param("email", "test@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(false))
+                .andExpect(jsonPath("$.emailAvailable").value(true));
+    }
+}
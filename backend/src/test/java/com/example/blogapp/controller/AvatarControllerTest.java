@@ -0,0 +1,85 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.config.TestSecurityConfig;
+import com.example.blogapp.service.AvatarService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AvatarController.class)
+@Import(TestSecurityConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AvatarControllerTest {
+
+    private static final UUID USER_ID = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+    private static final String FILE_NAME = "3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg";
+    private static final byte[] CONTENT = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3 };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvatarService avatarService;
+
+    @Test
+    void getAvatar_ShouldServeBytesWithETag() throws Exception {
+        // Arrange
+        when(avatarService.getAvatar(USER_ID, FILE_NAME, 64))
+                .thenReturn(Optional.of(new AvatarService.AvatarImage(CONTENT, "abc123", "image/jpeg")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/avatars/{userId}/{fileName}", USER_ID, FILE_NAME).param("s", "64"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(CONTENT))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void getAvatar_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(avatarService.getAvatar(USER_ID, FILE_NAME, null))
+                .thenReturn(Optional.of(new AvatarService.AvatarImage(CONTENT, "abc123", "image/jpeg")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/avatars/{userId}/{fileName}", USER_ID, FILE_NAME)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getAvatar_WhenMissing_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(avatarService.getAvatar(any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/avatars/{userId}/{fileName}", USER_ID, FILE_NAME))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAvatar_WhenStorageFails_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(avatarService.getAvatar(any(), any(), any())).thenThrow(new IOException("Connection refused"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/avatars/{userId}/{fileName}", USER_ID, FILE_NAME))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -7,9 +7,14 @@ import com.example.blogapp.entity.BlogPost;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.BlogPostMapper;
 import com.example.blogapp.service.BlogPostService;
+import com.example.blogapp.service.ChunkedUploadService;
+import com.example.blogapp.service.DirectUploadService;
 import com.example.blogapp.service.UserService;
 import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.storage.StorageTaskExecutor;
 import com.example.blogapp.util.BlogPostStatus;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,16 +29,25 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -42,7 +56,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.junit.jupiter.api.Assertions.*;
 
 @WebMvcTest(BlogPostController.class)
-@Import(TestSecurityConfig.class)
+@Import({ TestSecurityConfig.class, StorageTaskExecutor.class })
 @AutoConfigureMockMvc(addFilters = false)
 class BlogPostControllerTest {
 
@@ -64,6 +78,15 @@ class BlogPostControllerTest {
         @MockBean
         private FileStorageService fileStorageService;
 
+        @MockBean
+        private ImageDerivativeService imageDerivativeService;
+
+        @MockBean
+        private ChunkedUploadService chunkedUploadService;
+
+        @MockBean
+        private DirectUploadService directUploadService;
+
         private BlogPostDTO blogPostDTO;
         private BlogPost blogPost;
         private UUID testId;
@@ -242,9 +265,7 @@ class BlogPostControllerTest {
         @Test
         void updatePost_WithExistingId_ShouldReturnUpdatedPost() throws Exception {
                 // Arrange
-                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
-                when(blogPostMapper.toEntity(any(BlogPostDTO.class))).thenReturn(blogPost);
-                when(blogPostService.updatePost(any(BlogPost.class))).thenReturn(blogPost);
+                when(blogPostService.updatePost(eq(testId), any(BlogPostDTO.class))).thenReturn(Optional.of(blogPost));
                 when(blogPostMapper.toDTO(blogPost)).thenReturn(blogPostDTO);
 
                 // Act & Assert
@@ -255,16 +276,15 @@ class BlogPostControllerTest {
                                 .andExpect(jsonPath("$.id").value(testId.toString()))
                                 .andExpect(jsonPath("$.title").value("Test Post"));
 
-                verify(blogPostService).getPostById(testId);
-                verify(blogPostMapper).toEntity(any(BlogPostDTO.class));
-                verify(blogPostService).updatePost(any(BlogPost.class));
+                verify(blogPostService).updatePost(eq(testId), any(BlogPostDTO.class));
+                verify(blogPostService, never()).getPostById(any());
                 verify(blogPostMapper).toDTO(blogPost);
         }
 
         @Test
         void updatePost_WithNonExistingId_ShouldReturnNotFound() throws Exception {
                 // Arrange
-                when(blogPostService.getPostById(testId)).thenReturn(Optional.empty());
+                when(blogPostService.updatePost(eq(testId), any(BlogPostDTO.class))).thenReturn(Optional.empty());
 
                 // Act & Assert
                 mockMvc.perform(put("/api/posts/{id}", testId)
@@ -273,30 +293,81 @@ class BlogPostControllerTest {
                                 .andExpect(status().isNotFound());
         }
 
+        @Test
+        void updatePost_WithStaleVersion_ShouldReturnConflict() throws Exception {
+                // Arrange
+                when(blogPostService.updatePost(eq(testId), any(BlogPostDTO.class)))
+                                .thenThrow(new ObjectOptimisticLockingFailureException(BlogPost.class, testId));
+
+                // Act & Assert
+                mockMvc.perform(put("/api/posts/{id}", testId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(blogPostDTO)))
+                                .andExpect(status().isConflict());
+        }
+
+        @Test
+        void patchPost_WithMergePatch_ShouldReturnPatchedPost() throws Exception {
+                // Arrange
+                when(blogPostService.patchPost(eq(testId), any(JsonNode.class))).thenReturn(Optional.of(blogPost));
+                when(blogPostMapper.toDTO(blogPost)).thenReturn(blogPostDTO);
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/posts/{id}", testId)
+                                .contentType("application/merge-patch+json")
+                                .content("{\"title\": \"Test Post\"}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.title").value("Test Post"));
+
+                verify(blogPostService).patchPost(eq(testId), argThat(patch ->
+                                patch.size() == 1 && "Test Post".equals(patch.get("title").asText())));
+        }
+
+        @Test
+        void patchPost_WithPlainJson_ShouldReturnUnsupportedMediaType() throws Exception {
+                // Act & Assert
+                mockMvc.perform(patch("/api/posts/{id}", testId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"title\": \"Test Post\"}"))
+                                .andExpect(status().isUnsupportedMediaType());
+
+                verify(blogPostService, never()).patchPost(any(), any());
+        }
+
+        @Test
+        void patchPost_WithUnpatchableField_ShouldReturnBadRequest() throws Exception {
+                // Arrange
+                when(blogPostService.patchPost(eq(testId), any(JsonNode.class)))
+                                .thenThrow(new IllegalArgumentException("Field 'author' cannot be patched"));
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/posts/{id}", testId)
+                                .contentType("application/merge-patch+json")
+                                .content("{\"author\": null}"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @Test
         void deletePost_WithExistingId_ShouldReturnNoContent() throws Exception {
                 // Arrange
-                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(blogPostService.deleteIfExists(testId)).thenReturn(true);
 
                 // Act & Assert
                 mockMvc.perform(delete("/api/posts/{id}", testId))
                                 .andExpect(status().isNoContent());
 
-                verify(blogPostService).getPostById(testId);
-                verify(blogPostService).deletePost(testId);
+                verify(blogPostService).deleteIfExists(testId);
+                verify(blogPostService, never()).getPostById(any());
         }
 
         @Test
         void deletePost_WithNonExistingId_ShouldReturnNotFound() throws Exception {
                 // Arrange
-                when(blogPostService.getPostById(testId)).thenReturn(Optional.empty());
+                when(blogPostService.deleteIfExists(testId)).thenReturn(false);
 
                 // Act & Assert
                 mockMvc.perform(delete("/api/posts/{id}", testId))
                                 .andExpect(status().isNotFound());
-
-                verify(blogPostService).getPostById(testId);
-                verify(blogPostService, never()).deletePost(any());
         }
 
         @Test
@@ -348,4 +419,226 @@ class BlogPostControllerTest {
                 // Verify that the draft post was not included
                 verify(blogPostMapper, never()).toDTO(draftPost);
         }
-}
\ No newline at end of file
+
+        @Test
+        void uploadPostImage_ShouldStoreFileAndEnqueueDerivatives() throws Exception {
+                // Arrange
+                String imageUrl = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+                MockMultipartFile file = new MockMultipartFile(
+                                "file", "photo.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 1, 2, 3 });
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.storeFile(any(), eq("posts/" + testId))).thenReturn(imageUrl);
+                when(blogPostService.replaceImage(testId, imageUrl)).thenReturn(Optional.of(blogPost));
+
+                // Act & Assert
+                performAsync(multipart("/api/posts/{id}/image", testId).file(file))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imageUrl").value(imageUrl));
+
+                verify(imageDerivativeService)
+                                .enqueue("posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png");
+                verify(blogPostService).replaceImage(testId, imageUrl);
+        }
+
+        @Test
+        void uploadPostImage_WithUnsupportedType_ShouldReturnBadRequest() throws Exception {
+                // Arrange
+                MockMultipartFile file = new MockMultipartFile(
+                                "file", "notes.txt", MediaType.TEXT_PLAIN_VALUE, new byte[] { 1, 2, 3 });
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.storeFile(any(), eq("posts/" + testId)))
+                                .thenThrow(new IllegalArgumentException("Unsupported file type: notes.txt"));
+
+                // Act & Assert
+                performAsync(multipart("/api/posts/{id}/image", testId).file(file))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void uploadPostImages_ShouldStoreAllFiles() throws Exception {
+                // Arrange
+                MockMultipartFile first = new MockMultipartFile(
+                                "files", "a.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 1 });
+                MockMultipartFile second = new MockMultipartFile(
+                                "files", "b.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 2 });
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.storeFile(any(), eq("posts/" + testId)))
+                                .thenAnswer(invocation -> "/api/files/posts/" + testId + "/"
+                                                + invocation.<MultipartFile>getArgument(0)
+                                                                .getOriginalFilename());
+
+                // Act & Assert
+                performAsync(multipart("/api/posts/{id}/images", testId).file(first).file(second))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imageUrls.length()").value(2))
+                                .andExpect(jsonPath("$.imageUrls[0]").value("/api/files/posts/" + testId + "/a.png"))
+                                .andExpect(jsonPath("$.imageUrls[1]").value("/api/files/posts/" + testId + "/b.png"));
+
+                verify(blogPostService).addImages(testId, List.of(
+                                "/api/files/posts/" + testId + "/a.png",
+                                "/api/files/posts/" + testId + "/b.png"));
+                verify(imageDerivativeService).enqueue("posts/" + testId + "/a.png");
+                verify(imageDerivativeService).enqueue("posts/" + testId + "/b.png");
+                verify(blogPostService, never()).updatePost(any());
+        }
+
+        @Test
+        void uploadPostImages_WhenOneFails_ShouldRemoveStoredFiles() throws Exception {
+                // Arrange
+                MockMultipartFile first = new MockMultipartFile(
+                                "files", "a.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 1 });
+                MockMultipartFile second = new MockMultipartFile(
+                                "files", "b.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 2 });
+                String storedUrl = "/api/files/posts/" + testId + "/a.png";
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.storeFile(any(), eq("posts/" + testId))).thenAnswer(invocation -> {
+                        if ("a.png".equals(invocation.<MultipartFile>getArgument(0)
+                                        .getOriginalFilename())) {
+                                return storedUrl;
+                        }
+                        throw new Exception("Could not store file b.png");
+                });
+
+                // Act & Assert
+                performAsync(multipart("/api/posts/{id}/images", testId).file(first).file(second))
+                                .andExpect(status().isInternalServerError())
+                                .andExpect(jsonPath("$.error").value("Could not store file b.png"));
+
+                verify(fileStorageService, timeout(1000)).deleteFile(storedUrl);
+                verify(blogPostService, never()).addImages(any(), any());
+                verify(imageDerivativeService, never()).enqueue(any());
+        }
+
+        @Test
+        void uploadPostImages_WhenOneFailsWhileAnotherIsRunning_ShouldRemoveItOnceStored() throws Exception {
+                // Arrange
+                MockMultipartFile first = new MockMultipartFile(
+                                "files", "a.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 1 });
+                MockMultipartFile second = new MockMultipartFile(
+                                "files", "b.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 2 });
+                String storedUrl = "/api/files/posts/" + testId + "/a.png";
+                CountDownLatch failed = new CountDownLatch(1);
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.storeFile(any(), eq("posts/" + testId))).thenAnswer(invocation -> {
+                        if ("a.png".equals(invocation.<MultipartFile>getArgument(0)
+                                        .getOriginalFilename())) {
+                                failed.await(1, TimeUnit.SECONDS);
+                                return storedUrl;
+                        }
+                        throw new Exception("Could not store file b.png");
+                });
+
+                // Act
+                performAsync(multipart("/api/posts/{id}/images", testId).file(first).file(second))
+                                .andExpect(status().isInternalServerError());
+                verify(fileStorageService, never()).deleteFile(storedUrl);
+                failed.countDown();
+
+                // Assert
+                verify(fileStorageService, timeout(1000)).deleteFile(storedUrl);
+                verify(blogPostService, never()).addImages(any(), any());
+        }
+
+        @Test
+        void getPostImageUrl_ShouldReturnPresignedUrl() throws Exception {
+                // Arrange
+                blogPost.setImageUrl("/api/files/posts/" + testId + "/a.png");
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.getPresignedUrl(blogPost.getImageUrl(), 60))
+                                .thenReturn("http://minio/blog-files/posts/a.png?X-Amz-Signature=abc");
+
+                // Act & Assert
+                performAsync(get("/api/posts/{id}/image/url", testId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imageUrl")
+                                                .value("http://minio/blog-files/posts/a.png?X-Amz-Signature=abc"));
+        }
+
+        @Test
+        void uploadImagePart_ShouldStreamRequestBodyToService() throws Exception {
+                // Arrange
+                UUID uploadId = UUID.randomUUID();
+                byte[] chunk = new byte[] { 1, 2, 3, 4 };
+                when(chunkedUploadService.uploadPart(eq("posts/" + testId), eq(uploadId), eq(2), any(), eq(4L)))
+                                .thenReturn(true);
+
+                // Act & Assert
+                mockMvc.perform(put("/api/posts/{id}/image/uploads/{uploadId}/parts/{partNumber}", testId, uploadId, 2)
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                                .content(chunk))
+                                .andExpect(status().isNoContent());
+        }
+
+        @Test
+        void completeImageUpload_ShouldAttachAssembledFileToPost() throws Exception {
+                // Arrange
+                UUID uploadId = UUID.randomUUID();
+                String imageUrl = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(chunkedUploadService.completeUpload("posts/" + testId, uploadId)).thenReturn(Optional.of(imageUrl));
+                when(blogPostService.replaceImage(testId, imageUrl)).thenReturn(Optional.of(blogPost));
+
+                // Act & Assert
+                mockMvc.perform(post("/api/posts/{id}/image/uploads/{uploadId}/complete", testId, uploadId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.imageUrl").value(imageUrl));
+
+                verify(blogPostService).replaceImage(testId, imageUrl);
+                verify(imageDerivativeService)
+                                .enqueue("posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png");
+        }
+
+        @Test
+        void completeDirectImageUpload_WithUnknownObject_ShouldReturnNotFound() throws Exception {
+                // Arrange
+                String objectName = "posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+                when(blogPostService.getPostById(testId)).thenReturn(Optional.of(blogPost));
+                when(fileStorageService.directUploads()).thenReturn(Optional.of(directUploadService));
+                when(directUploadService.completeDirectUpload("posts/" + testId, objectName))
+                                .thenReturn(Optional.empty());
+
+                // Act & Assert
+                mockMvc.perform(post("/api/posts/{id}/image/direct-uploads/complete", testId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"objectName\":\"" + objectName + "\"}"))
+                                .andExpect(status().isNotFound());
+
+                verify(blogPostService, never()).updatePost(any());
+        }
+
+        @Test
+        void createDirectImageUpload_WithoutObjectStorage_ShouldReturnNotImplemented() throws Exception {
+                // Arrange
+                when(fileStorageService.directUploads()).thenReturn(Optional.empty());
+
+                // Act & Assert
+                mockMvc.perform(post("/api/posts/{id}/image/direct-uploads", testId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"fileName\":\"photo.png\",\"contentType\":\"image/png\",\"size\":512}"))
+                                .andExpect(status().isNotImplemented())
+                                .andExpect(jsonPath("$.error").exists());
+        }
+
+        @Test
+        void completeDirectImageUpload_WithoutObjectStorage_ShouldReturnNotImplemented() throws Exception {
+                // Arrange
+                String objectName = "posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+                when(fileStorageService.directUploads()).thenReturn(Optional.empty());
+
+                // Act & Assert
+                mockMvc.perform(post("/api/posts/{id}/image/direct-uploads/complete", testId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"objectName\":\"" + objectName + "\"}"))
+                                .andExpect(status().isNotImplemented())
+                                .andExpect(jsonPath("$.error").exists());
+
+                verify(blogPostService, never()).replaceImage(any(), any());
+        }
+
+        private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+                MvcResult result = mockMvc.perform(requestBuilder)
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                return mockMvc.perform(asyncDispatch(result));
+        }
+}
@@ -9,6 +9,7 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.CommentMapper;
 import com.example.blogapp.service.BlogPostService;
 import com.example.blogapp.service.CommentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -181,10 +183,9 @@ class CommentControllerTest {
         @Test
         void updateComment_WithValidData_ShouldReturnUpdatedComment() throws Exception {
                 // Arrange
-                when(commentService.getCommentById(testCommentId)).thenReturn(Optional.of(comment));
-                when(commentService.updateComment(any(Comment.class))).thenReturn(comment);
+                when(commentService.updateComment(eq(testCommentId), any(CommentDTO.class)))
+                                .thenReturn(Optional.of(comment));
                 when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-                when(commentMapper.toEntity(any(CommentDTO.class))).thenReturn(comment);
 
                 // Act & Assert
                 mockMvc.perform(put("/api/comments/{id}", testCommentId)
@@ -194,51 +195,84 @@ class CommentControllerTest {
                                 .andExpect(jsonPath("$.id").value(testCommentId.toString()))
                                 .andExpect(jsonPath("$.content").value("Test comment"));
 
-                verify(commentService).getCommentById(testCommentId);
-                verify(commentService).updateComment(any(Comment.class));
+                verify(commentService).updateComment(eq(testCommentId), any(CommentDTO.class));
+                verify(commentService, never()).getCommentById(any());
                 verify(commentMapper).toDTO(comment);
-                verify(commentMapper).toEntity(any(CommentDTO.class));
         }
 
         @Test
         void updateComment_WithNonExistingId_ShouldReturnNotFound() throws Exception {
                 // Arrange
-                when(commentService.getCommentById(testCommentId)).thenReturn(Optional.empty());
-                when(commentMapper.toEntity(any(CommentDTO.class))).thenReturn(comment);
+                when(commentService.updateComment(eq(testCommentId), any(CommentDTO.class)))
+                                .thenReturn(Optional.empty());
 
                 // Act & Assert
                 mockMvc.perform(put("/api/comments/{id}", testCommentId)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(commentDTO)))
                                 .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void updateComment_WithStaleVersion_ShouldReturnConflict() throws Exception {
+                // Arrange
+                when(commentService.updateComment(eq(testCommentId), any(CommentDTO.class)))
+                                .thenThrow(new ObjectOptimisticLockingFailureException(Comment.class, testCommentId));
 
-                verify(commentService).getCommentById(testCommentId);
-                verify(commentService, never()).updateComment(any());
+                // Act & Assert
+                mockMvc.perform(put("/api/comments/{id}", testCommentId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(commentDTO)))
+                                .andExpect(status().isConflict());
+        }
+
+        @Test
+        void patchComment_WithMergePatch_ShouldReturnPatchedComment() throws Exception {
+                // Arrange
+                when(commentService.patchComment(eq(testCommentId), any(JsonNode.class)))
+                                .thenReturn(Optional.of(comment));
+                when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/comments/{id}", testCommentId)
+                                .contentType("application/merge-patch+json")
+                                .content("{\"content\": \"Test comment\"}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content").value("Test comment"));
+        }
+
+        @Test
+        void patchComment_WithNonExistingId_ShouldReturnNotFound() throws Exception {
+                // Arrange
+                when(commentService.patchComment(eq(testCommentId), any(JsonNode.class)))
+                                .thenReturn(Optional.empty());
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/comments/{id}", testCommentId)
+                                .contentType("application/merge-patch+json")
+                                .content("{\"content\": \"Test comment\"}"))
+                                .andExpect(status().isNotFound());
         }
 
         @Test
         void deleteComment_WithExistingId_ShouldReturnNoContent() throws Exception {
                 // Arrange
-                when(commentService.getCommentById(testCommentId)).thenReturn(Optional.of(comment));
+                when(commentService.deleteIfExists(testCommentId)).thenReturn(true);
 
                 // Act & Assert
                 mockMvc.perform(delete("/api/comments/{id}", testCommentId))
                                 .andExpect(status().isNoContent());
 
-                verify(commentService).getCommentById(testCommentId);
-                verify(commentService).deleteComment(testCommentId);
+                verify(commentService).deleteIfExists(testCommentId);
         }
 
         @Test
         void deleteComment_WithNonExistingId_ShouldReturnNotFound() throws Exception {
                 // Arrange
-                when(commentService.getCommentById(testCommentId)).thenReturn(Optional.empty());
+                when(commentService.deleteIfExists(testCommentId)).thenReturn(false);
 
                 // Act & Assert
                 mockMvc.perform(delete("/api/comments/{id}", testCommentId))
                                 .andExpect(status().isNotFound());
-
-                verify(commentService).getCommentById(testCommentId);
-                verify(commentService, never()).deleteComment(any());
         }
-}
\ No newline at end of file
+}
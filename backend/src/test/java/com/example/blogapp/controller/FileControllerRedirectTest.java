@@ -0,0 +1,71 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.config.TestSecurityConfig;
+import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.storage.StorageUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = FileController.class, properties = "file.serving-mode=redirect")
+@Import(TestSecurityConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+class FileControllerRedirectTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StorageBackend storageBackend;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @MockBean
+    private DiskObjectCache diskObjectCache;
+
+    @MockBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @Test
+    void getObject_InRedirectMode_ShouldRedirectToPresignedUrl() throws Exception {
+        // Arrange
+        when(fileStorageService.getPresignedUrl("posts/1/image.png", 10))
+                .thenReturn("http://minio:9000/blog-files/posts/1/image.png?X-Amz-Signature=abc");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/posts/1/image.png"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION,
+                        "http://minio:9000/blog-files/posts/1/image.png?X-Amz-Signature=abc"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, private"));
+
+        verify(storageBackend, never()).stat(any());
+    }
+
+    @Test
+    void getObject_InRedirectMode_WhenStorageUnavailable_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(fileStorageService.getPresignedUrl("posts/1/image.png", 10)).thenThrow(new Exception(
+                "Could not generate presigned URL for posts/1/image.png",
+                new StorageUnavailableException("Storage circuit is open", 5_000)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/posts/1/image.png"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.blogapp.controller;
+
+import com.example.blogapp.config.TestSecurityConfig;
+import com.example.blogapp.service.FileStorageService;
+import com.example.blogapp.service.ImageDerivativeService;
+import com.example.blogapp.storage.CachedObject;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.ObjectMetadata;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.storage.StorageUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FileController.class)
+@Import(TestSecurityConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+class FileControllerTest {
+
+    private static final String OBJECT_NAME = "posts/1/image.png";
+    private static final String CACHEABLE_NAME = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+    private static final String CACHEABLE_VARIANT = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w320.png";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final long LAST_MODIFIED = ZonedDateTime.parse("2024-01-01T00:00:00Z").toInstant().toEpochMilli();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StorageBackend storageBackend;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @MockBean
+    private DiskObjectCache diskObjectCache;
+
+    @MockBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(storageBackend.stat(any())).thenReturn(Optional.of(
+                new ObjectMetadata(CONTENT.length, "abc123", LAST_MODIFIED, "image/png")));
+
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(CONTENT, (int) offset, (int) length);
+            return null;
+        }).when(storageBackend).transfer(any(), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    @Test
+    void getObject_WithoutRange_ShouldStreamWholeObjectWithValidators() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void getObject_WithImmutableName_ShouldAllowLongTermCaching() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/files/" + CACHEABLE_NAME))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void getObject_WithMutableName_ShouldNotMarkImmutable() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void getObject_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        mockMvc.perform(get("/api/files/" + OBJECT_NAME)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified());
+
+        verify(storageBackend, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_WithSingleRange_ShouldReturnPartialContent() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME)
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void getObject_WithMultipleRanges_ShouldReturnMultipartByteranges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME)
+                .header(HttpHeaders.RANGE, "bytes=0-1,8-9"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("multipart/byteranges")))
+                .andExpect(content().string(containsString("Content-Range: bytes 8-9/10")));
+
+        verify(storageBackend, times(2)).transfer(eq(OBJECT_NAME), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_WithUnsatisfiableRange_ShouldReturnRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(get("/api/files/" + OBJECT_NAME)
+                .header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void getObject_WhenObjectMissing_ShouldReturnNotFound() throws Exception {
+        when(storageBackend.stat("posts/1/missing.png")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/files/posts/1/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getObject_WhenStorageUnavailable_ShouldFailFastWithRetryAfter() throws Exception {
+        when(storageBackend.stat(OBJECT_NAME))
+                .thenThrow(new StorageUnavailableException("Storage circuit is open, stat not attempted", 4200));
+
+        mockMvc.perform(get("/api/files/" + OBJECT_NAME))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void getObject_WhenCachedAndStorageUnavailable_ShouldServeCachedCopy() throws Exception {
+        // Arrange
+        CachedObject cached = cachedObject();
+        when(diskObjectCache.isCacheable(CACHEABLE_NAME)).thenReturn(true);
+        when(diskObjectCache.getOrFetch(CACHEABLE_NAME)).thenReturn(cached);
+        when(storageBackend.stat(any()))
+                .thenThrow(new StorageUnavailableException("Storage circuit is open, stat not attempted", 4200));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + CACHEABLE_NAME)
+                .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", cached.path().toString()));
+    }
+
+    @Test
+    void getObject_WhenCached_ShouldServeFromDiskCache() throws Exception {
+        // Arrange
+        CachedObject cached = cachedObject();
+        when(diskObjectCache.isCacheable(CACHEABLE_NAME)).thenReturn(true);
+        when(diskObjectCache.getOrFetch(CACHEABLE_NAME)).thenReturn(cached);
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(CONTENT, (int) offset, (int) length);
+            return null;
+        }).when(diskObjectCache).transfer(eq(cached), anyLong(), anyLong(), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/files/" + CACHEABLE_NAME)
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+        verify(storageBackend, never()).stat(any());
+        verify(storageBackend, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_WhenCachedAndSendfileSupported_ShouldDelegateToContainer() throws Exception {
+        // Arrange
+        CachedObject cached = cachedObject();
+        when(diskObjectCache.isCacheable(CACHEABLE_NAME)).thenReturn(true);
+        when(diskObjectCache.getOrFetch(CACHEABLE_NAME)).thenReturn(cached);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + CACHEABLE_NAME)
+                .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", cached.path().toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 2L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 6L));
+        verify(diskObjectCache).recordSendfile(4);
+        verify(diskObjectCache, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_FromLocalBackend_ShouldSendFileWithoutDiskCache() throws Exception {
+        // Arrange
+        Path file = Path.of("/var/lib/blogapp/uploads", CACHEABLE_NAME);
+        when(storageBackend.localPath(CACHEABLE_NAME)).thenReturn(Optional.of(file));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/files/" + CACHEABLE_NAME)
+                .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file.toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 10L));
+        verify(diskObjectCache, never()).getOrFetch(any());
+        verify(diskObjectCache, never()).recordSendfile(anyLong());
+    }
+
+    @Test
+    void getObject_WithWidth_ShouldServeExistingVariant() throws Exception {
+        // Arrange
+        when(imageDerivativeService.variantFor(OBJECT_NAME, 300)).thenReturn(Optional.of("posts/1/image-w320.png"));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME).param("w", "300"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("image-w320.png")));
+        verify(storageBackend).transfer(eq("posts/1/image-w320.png"), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_WithWidthAndMissingVariant_ShouldFallBackToOriginal() throws Exception {
+        // Arrange
+        when(imageDerivativeService.variantFor(OBJECT_NAME, 300)).thenReturn(Optional.of("posts/1/image-w320.png"));
+        when(storageBackend.stat("posts/1/image-w320.png")).thenReturn(Optional.empty());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/files/" + OBJECT_NAME).param("w", "300"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+        verify(storageBackend).transfer(eq(OBJECT_NAME), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getObject_WithWidthAndUncachedVariant_ShouldCheckVariantWithStat() throws Exception {
+        // Arrange
+        when(imageDerivativeService.variantFor(CACHEABLE_NAME, 300)).thenReturn(Optional.of(CACHEABLE_VARIANT));
+        when(diskObjectCache.isCacheable(CACHEABLE_VARIANT)).thenReturn(true);
+        when(diskObjectCache.getOrFetch(CACHEABLE_VARIANT)).thenReturn(cachedObject());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/files/" + CACHEABLE_NAME).param("w", "300"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(storageBackend).stat(CACHEABLE_VARIANT);
+        verify(diskObjectCache, times(1)).getOrFetch(CACHEABLE_VARIANT);
+    }
+
+    private CachedObject cachedObject() {
+        return new CachedObject(CACHEABLE_NAME, Path.of("/tmp/blogapp-file-cache/entry"), CONTENT.length,
+                "abc123", LAST_MODIFIED, "image/png");
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.blogapp.controller;
 
 import com.example.blogapp.config.TestSecurityConfig;
+import com.example.blogapp.storage.StorageBackend;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(HealthController.class)
@@ -20,10 +24,37 @@ class HealthControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockBean
+    private StorageBackend storageBackend;
+
     @Test
     void health_ShouldReturnOkWithResponseEntity() throws Exception {
         mockMvc.perform(get("/health"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void ready_WhenStorageReady_ShouldReturnOk() throws Exception {
+        // Arrange
+        when(storageBackend.isReady()).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(get("/health/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.storage").value("UP"));
+    }
+
+    @Test
+    void ready_WhenStorageNotReady_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(storageBackend.isReady()).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/health/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("DOWN"))
+                .andExpect(jsonPath("$.storage").value("DOWN"));
+    }
+}
@@ -5,7 +5,10 @@ import com.example.blogapp.dto.PasswordUpdateRequest;
 import com.example.blogapp.dto.UserDTO;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.mapper.UserMapper;
+import com.example.blogapp.service.AvatarService;
 import com.example.blogapp.service.UserService;
+import com.example.blogapp.storage.StorageTaskExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,11 +18,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -29,7 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
-@Import(TestSecurityConfig.class)
+@Import({ TestSecurityConfig.class, StorageTaskExecutor.class })
 @AutoConfigureMockMvc(addFilters = false)
 class UserControllerTest {
 
@@ -45,6 +51,9 @@ class UserControllerTest {
         @MockBean
         private UserMapper userMapper;
 
+        @MockBean
+        private AvatarService avatarService;
+
         private User testUser;
         private UserDTO userDTO;
         private UUID testId;
@@ -132,6 +141,43 @@ class UserControllerTest {
                 verify(userMapper).toDTO(any(User.class));
         }
 
+        @Test
+        void patchProfile_WithMergePatch_ShouldReturnUpdatedProfile() throws Exception {
+                // Arrange
+                when(userService.patchProfile(eq(testId), any(JsonNode.class))).thenReturn(Optional.of(testUser));
+                when(userMapper.toDTO(testUser)).thenReturn(userDTO);
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/users/profile")
+                                .with(req -> {
+                                        req.setUserPrincipal(new UsernamePasswordAuthenticationToken(testUser, null));
+                                        return req;
+                                })
+                                .contentType("application/merge-patch+json")
+                                .content("{\"bio\": null}"))
+                                .andExpect(status().isOk());
+
+                verify(userService).patchProfile(eq(testId), argThat(patch -> patch.get("bio").isNull()));
+                verify(userService, never()).updateUser(any());
+        }
+
+        @Test
+        void patchProfile_WithAvatarUrl_ShouldReturnBadRequest() throws Exception {
+                // Arrange
+                when(userService.patchProfile(eq(testId), any(JsonNode.class)))
+                                .thenThrow(new IllegalArgumentException("Field 'avatarUrl' cannot be patched"));
+
+                // Act & Assert
+                mockMvc.perform(patch("/api/users/profile")
+                                .with(req -> {
+                                        req.setUserPrincipal(new UsernamePasswordAuthenticationToken(testUser, null));
+                                        return req;
+                                })
+                                .contentType("application/merge-patch+json")
+                                .content("{\"avatarUrl\": \"/api/files/posts/1/a.png\"}"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @Test
         void updateProfile_WithInvalidData_ShouldReturnBadRequest() throws Exception {
                 // Arrange
@@ -195,4 +241,43 @@ class UserControllerTest {
 
                 verify(userService, never()).updatePassword(any(), anyString());
         }
-}
\ No newline at end of file
+
+        @Test
+        void uploadAvatar_ShouldReturnProfileWithNewAvatar() throws Exception {
+                // Arrange
+                String avatarUrl = "/api/avatars/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg";
+                MockMultipartFile file = new MockMultipartFile(
+                                "file", "me.png", MediaType.IMAGE_PNG_VALUE, new byte[] { 1, 2, 3 });
+                userDTO.setAvatarUrl(avatarUrl);
+                when(avatarService.updateAvatar(eq(testUser), any())).thenReturn(testUser);
+                when(userMapper.toDTO(testUser)).thenReturn(userDTO);
+
+                // Act
+                MvcResult result = mockMvc.perform(multipart("/api/users/profile/avatar").file(file))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                // Assert
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.avatarUrl").value(avatarUrl));
+        }
+
+        @Test
+        void uploadAvatar_WithUndecodableImage_ShouldReturnBadRequest() throws Exception {
+                // Arrange
+                MockMultipartFile file = new MockMultipartFile(
+                                "file", "me.txt", MediaType.TEXT_PLAIN_VALUE, new byte[] { 1, 2, 3 });
+                when(avatarService.updateAvatar(eq(testUser), any()))
+                                .thenThrow(new IllegalArgumentException("Avatar must be a JPEG, PNG or GIF image"));
+
+                // Act
+                MvcResult result = mockMvc.perform(multipart("/api/users/profile/avatar").file(file))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                // Assert
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isBadRequest());
+        }
+}
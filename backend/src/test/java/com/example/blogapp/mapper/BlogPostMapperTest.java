@@ -0,0 +1,96 @@
+package com.example.blogapp.mapper;
+
+import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.TagDTO;
+import com.example.blogapp.dto.UserDTO;
+import com.example.blogapp.entity.BlogPost;
+import com.example.blogapp.entity.Tag;
+import com.example.blogapp.entity.User;
+import com.example.blogapp.util.BlogPostStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlogPostMapperTest {
+
+    private BlogPostMapper blogPostMapper;
+    private BlogPost post;
+    private Tag tag;
+
+    @BeforeEach
+    void setUp() {
+        blogPostMapper = new BlogPostMapper(new TagMapper(), new UserMapper());
+
+        User author = new User();
+        author.setId(UUID.randomUUID());
+        author.setUsername("testuser");
+        author.setEmail("test@example.com");
+
+        tag = new Tag();
+        tag.setId(UUID.randomUUID());
+        tag.setName("java");
+        tag.setSlug("java");
+
+        post = new BlogPost();
+        post.setId(UUID.randomUUID());
+        post.setTitle("Test Post");
+        post.setSlug("test-post");
+        post.setDescription("Description");
+        post.setContent("Test content");
+        post.setStatus(BlogPostStatus.PUBLISHED);
+        post.setPostDate(LocalDateTime.now());
+        post.setReadTime("1 min");
+        post.setImageUrl("/api/files/posts/image.png");
+        post.setAuthor(author);
+        post.getTags().add(tag);
+    }
+
+    @Test
+    void toDTO_ShouldCopyAllFieldsAndNestedAuthorAndTags() {
+        // Act
+        BlogPostDTO dto = blogPostMapper.toDTO(post);
+
+        // Assert
+        assertEquals(post.getId(), dto.getId());
+        assertEquals(post.getTitle(), dto.getTitle());
+        assertEquals(post.getSlug(), dto.getSlug());
+        assertEquals(post.getDescription(), dto.getDescription());
+        assertEquals(post.getContent(), dto.getContent());
+        assertEquals(post.getStatus(), dto.getStatus());
+        assertEquals(post.getPostDate(), dto.getPostDate());
+        assertEquals(post.getReadTime(), dto.getReadTime());
+        assertEquals(post.getImageUrl(), dto.getImageUrl());
+        assertEquals("testuser", dto.getAuthor().getUsername());
+        assertEquals(1, dto.getTags().size());
+        assertEquals("java", dto.getTags().iterator().next().getName());
+    }
+
+    @Test
+    void toEntity_ShouldCopyAllFieldsAndNestedAuthorAndTags() {
+        // Arrange
+        BlogPostDTO dto = BlogPostDTO.builder()
+                .id(UUID.randomUUID())
+                .title("Test Post")
+                .content("Test content")
+                .status(BlogPostStatus.DRAFT)
+                .author(UserDTO.builder().id(UUID.randomUUID()).username("testuser").build())
+                .tags(Set.of(TagDTO.builder().id(UUID.randomUUID()).name("java").slug("java").build()))
+                .build();
+
+        // Act
+        BlogPost entity = blogPostMapper.toEntity(dto);
+
+        // Assert
+        assertEquals(dto.getId(), entity.getId());
+        assertEquals(dto.getTitle(), entity.getTitle());
+        assertEquals(dto.getStatus(), entity.getStatus());
+        assertEquals(dto.getAuthor().getId(), entity.getAuthor().getId());
+        assertEquals(1, entity.getTags().size());
+        assertTrue(entity.getTags().iterator().next().getPosts().isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.blogapp.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Liquibase changelog against PostgreSQL, lets Hibernate validate
+ * the mappings against the result, and checks that the main read queries
+ * are answered from an index. Sequential scans are disabled for the
+ * session, so the planner only picks one when no index fits. Skipped when
+ * Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final String POST_ID = "'3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f'::uuid";
+    private static final String USER_ID = "'7c9e6679-7425-40de-944b-e07fc1f90ae7'::uuid";
+    private static final String TAG_ID = "'9a0b1c2d-8a4d-4c7b-9e2f-1a2b3c4d5e6f'::uuid";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Local to the test transaction
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void publishedPostsPage_ShouldUseStatusPostDateIndex() {
+        assertIndexScan("idx_blog_posts_status_post_date",
+                "SELECT id FROM blog_posts WHERE status = 'PUBLISHED' ORDER BY post_date DESC LIMIT 10 OFFSET 20");
+    }
+
+    @Test
+    void postsOfAuthor_ShouldUseAuthorPostDateIndex() {
+        assertIndexScan("idx_blog_posts_author_post_date",
+                "SELECT id FROM blog_posts WHERE author_id = " + USER_ID + " ORDER BY post_date DESC");
+    }
+
+    @Test
+    void postBySlug_ShouldUseUniqueIndex() {
+        assertIndexScan("blog_posts_slug_key", "SELECT id FROM blog_posts WHERE slug = 'hello-world'");
+    }
+
+    @Test
+    void commentsOfPost_ShouldUsePostCreatedAtIndex() {
+        assertIndexScan("idx_comments_post_created_at",
+                "SELECT id FROM comments WHERE post_id = " + POST_ID + " ORDER BY created_at DESC LIMIT 20");
+        assertIndexScan("idx_comments_post_created_at",
+                "SELECT count(*) FROM comments WHERE post_id = " + POST_ID);
+    }
+
+    @Test
+    void postsWithTag_ShouldUseTagPostIndex() {
+        assertIndexScan("idx_post_tags_tag_post", "SELECT post_id FROM post_tags WHERE tag_id = " + TAG_ID);
+    }
+
+    @Test
+    void login_ShouldUseLowercaseIndexes() {
+        String plan = assertIndexScan("ux_users_username_lower",
+                "SELECT * FROM users WHERE lower(username) = lower('Alice') OR lower(email) = lower('Alice') "
+                        + "ORDER BY (lower(username) = lower('Alice')) DESC LIMIT 1");
+        assertTrue(plan.contains("ux_users_email_lower"), plan);
+    }
+
+    private String assertIndexScan(String index, String query) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + query, String.class);
+        String plan = String.join("\n", lines);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(plan.contains(index), plan);
+        return plan;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.blogapp.security;
+
+import com.example.blogapp.entity.User;
+import com.example.blogapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPasswordHash("hashedPassword");
+    }
+
+    @Test
+    void loadUserByUsername_WithEmail_ShouldUseSingleLookup() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmailIgnoreCase("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+
+        // Act
+        UserDetails result = userDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertEquals("testuser", result.getUsername());
+        verify(userRepository).findByUsernameOrEmailIgnoreCase("test@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loadUserByUsername_WithUnknownLogin_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmailIgnoreCase("unknown"))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> {
+            userDetailsService.loadUserByUsername("unknown");
+        });
+    }
+}
@@ -16,12 +16,12 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Optional;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -44,6 +44,9 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private AvailabilityService availabilityService;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -88,8 +91,6 @@ class AuthServiceTest {
     @Test
     void register_WithValidRequest_ShouldCreateUserAndReturnToken() {
         // Arrange
-        when(userService.existsByEmail(anyString())).thenReturn(false);
-        when(userService.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
         when(userService.createUser(any(User.class))).thenReturn(testUser);
         when(jwtService.generateToken(any(User.class))).thenReturn(TEST_TOKEN);
@@ -108,39 +109,33 @@ class AuthServiceTest {
         assertEquals(registerRequest.getUsername(), capturedUser.getUsername());
         assertEquals(registerRequest.getEmail(), capturedUser.getEmail());
         assertEquals("hashedPassword", capturedUser.getPasswordHash());
+        verify(availabilityService).markTaken(testUser.getUsername(), testUser.getEmail());
     }
 
     @Test
-    void register_WithExistingUsername_ShouldThrowException() {
-        // Arrange
-        when(userService.existsByUsername(registerRequest.getUsername())).thenReturn(true);
-
-        // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
-            authService.register(registerRequest);
-        });
-
-        verify(userService, never()).createUser(any());
-    }
-
-    @Test
-    void register_WithExistingEmail_ShouldThrowException() {
+    void register_WithExistingUsernameOrEmail_ShouldThrowException() {
         // Arrange
-        when(userService.existsByEmail(registerRequest.getEmail())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        when(userService.createUser(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_users_username_lower"));
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             authService.register(registerRequest);
         });
 
-        verify(userService, never()).createUser(any());
+        assertEquals("Username or email already exists", exception.getMessage());
+        verify(userService, never()).existsByUsername(anyString());
+        verify(userService, never()).existsByEmail(anyString());
+        verify(jwtService, never()).generateToken(any(User.class));
+        verify(availabilityService, never()).markTaken(anyString(), anyString());
     }
 
     @Test
     void login_WithValidUsername_ShouldReturnToken() {
         // Arrange
-        when(userService.getUserByUsername(loginRequest.getUsernameOrEmail()))
-                .thenReturn(Optional.of(testUser));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(testUser, null, testUser.getAuthorities()));
         when(jwtService.generateToken(testUser)).thenReturn(TEST_TOKEN);
         when(userMapper.toDTO(testUser)).thenReturn(testUserDTO);
 
@@ -152,16 +147,15 @@ class AuthServiceTest {
         assertEquals(TEST_TOKEN, response.getToken());
         assertEquals(testUserDTO, response.getUser());
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        verifyNoInteractions(userService);
     }
 
     @Test
     void login_WithValidEmail_ShouldReturnToken() {
         // Arrange
         loginRequest.setUsernameOrEmail("test@example.com");
-        when(userService.getUserByUsername(loginRequest.getUsernameOrEmail()))
-                .thenReturn(Optional.empty());
-        when(userService.getUserByEmail(loginRequest.getUsernameOrEmail()))
-                .thenReturn(Optional.of(testUser));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(testUser, null, testUser.getAuthorities()));
         when(jwtService.generateToken(testUser)).thenReturn(TEST_TOKEN);
         when(userMapper.toDTO(testUser)).thenReturn(testUserDTO);
 
@@ -173,20 +167,21 @@ class AuthServiceTest {
         assertEquals(TEST_TOKEN, response.getToken());
         assertEquals(testUserDTO, response.getUser());
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        verifyNoInteractions(userService);
     }
 
     @Test
     void login_WithInvalidCredentials_ShouldThrowException() {
         // Arrange
-        when(userService.getUserByUsername(loginRequest.getUsernameOrEmail()))
-                .thenReturn(Optional.empty());
-        when(userService.getUserByEmail(loginRequest.getUsernameOrEmail()))
-                .thenReturn(Optional.empty());
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
+        assertThrows(BadCredentialsException.class, () -> {
             authService.login(loginRequest);
         });
+
+        verify(jwtService, never()).generateToken(any(User.class));
     }
 
     @Test
@@ -0,0 +1,122 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.auth.AvailabilityResponse;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.impl.BloomFilterAvailabilityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private BloomFilterAvailabilityServiceImpl availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(availabilityService, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(availabilityService, "falsePositiveProbability", 0.01);
+    }
+
+    @Test
+    void checkAvailability_WithUnknownUsername_ShouldAnswerFromFilter() {
+        // Arrange
+        when(userRepository.streamUsernamesLowercase()).thenReturn(Stream.of("testuser"));
+        when(userRepository.streamEmailsLowercase()).thenReturn(Stream.of("test@example.com"));
+        availabilityService.rebuild();
+
+        // Act
+        AvailabilityResponse response = availabilityService.checkAvailability("newcomer", null);
+
+        // Assert
+        assertTrue(response.getUsernameAvailable());
+        assertNull(response.getEmailAvailable());
+        verify(userRepository, never()).existsByUsernameIgnoreCase(anyString());
+    }
+
+    @Test
+    void checkAvailability_WithTakenUsername_ShouldConfirmWithDatabase() {
+        // Arrange
+        when(userRepository.streamUsernamesLowercase()).thenReturn(Stream.of("testuser"));
+        when(userRepository.streamEmailsLowercase()).thenReturn(Stream.of("test@example.com"));
+        when(userRepository.existsByUsernameIgnoreCase("testuser")).thenReturn(true);
+        when(userRepository.existsByEmailIgnoreCase("test@example.com")).thenReturn(true);
+        availabilityService.rebuild();
+
+        // Act
+        AvailabilityResponse response = availabilityService.checkAvailability("TestUser", "Test@Example.com");
+
+        // Assert
+        assertFalse(response.getUsernameAvailable());
+        assertFalse(response.getEmailAvailable());
+    }
+
+    @Test
+    void checkAvailability_BeforeFilterIsBuilt_ShouldFallBackToDatabase() {
+        // Arrange
+        when(userRepository.existsByUsernameIgnoreCase("testuser")).thenReturn(false);
+
+        // Act
+        AvailabilityResponse response = availabilityService.checkAvailability("testuser", null);
+
+        // Assert
+        assertTrue(response.getUsernameAvailable());
+        verify(userRepository).existsByUsernameIgnoreCase("testuser");
+    }
+
+    @Test
+    void markTaken_AfterRebuild_ShouldRouteLookupsToDatabase() {
+        // Arrange
+        when(userRepository.streamUsernamesLowercase()).thenReturn(Stream.of());
+        when(userRepository.streamEmailsLowercase()).thenReturn(Stream.of());
+        when(userRepository.existsByUsernameIgnoreCase("freshuser")).thenReturn(true);
+        availabilityService.rebuild();
+
+        // Act
+        availabilityService.markTaken("FreshUser", "fresh@example.com");
+        AvailabilityResponse response = availabilityService.checkAvailability("freshuser", null);
+
+        // Assert
+        assertFalse(response.getUsernameAvailable());
+    }
+
+    @Test
+    void markTaken_DuringRebuild_ShouldSurviveTheSwap() {
+        // Arrange: a registration arrives while the usernames are streamed
+        when(userRepository.streamUsernamesLowercase()).thenAnswer(invocation -> {
+            availabilityService.markTaken("Latecomer", "late@example.com");
+            return Stream.of("testuser");
+        });
+        when(userRepository.streamEmailsLowercase()).thenReturn(Stream.of("test@example.com"));
+        when(userRepository.existsByUsernameIgnoreCase("latecomer")).thenReturn(true);
+
+        // Act
+        availabilityService.rebuild();
+        AvailabilityResponse response = availabilityService.checkAvailability("latecomer", null);
+
+        // Assert
+        assertFalse(response.getUsernameAvailable());
+        verify(userRepository).existsByUsernameIgnoreCase("latecomer");
+    }
+
+    @Test
+    void checkAvailability_WithoutParameters_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            availabilityService.checkAvailability(null, null);
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.entity.User;
+import com.example.blogapp.service.impl.AvatarServiceImpl;
+import com.example.blogapp.storage.InMemoryStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvatarServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    private InMemoryStorageBackend storageBackend;
+    private AvatarServiceImpl avatarService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        storageBackend = new InMemoryStorageBackend();
+        avatarService = new AvatarServiceImpl(storageBackend, userService, new int[] { 128, 64 }, 100);
+        ReflectionTestUtils.setField(avatarService, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(avatarService, "maxSourcePixels", 25_000_000L);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+    }
+
+    @Test
+    void updateAvatar_ShouldStoreSquareRenditionsAndUpdateUser() throws Exception {
+        // Arrange
+        when(userService.updateUser(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        User updated = avatarService.updateAvatar(user, png(300, 200));
+
+        // Assert
+        assertTrue(updated.getAvatarUrl().matches("/api/avatars/" + user.getId() + "/[0-9a-f-]{36}\\.jpg"));
+        String fileName = updated.getAvatarUrl().substring(updated.getAvatarUrl().lastIndexOf('/') + 1);
+        String stem = "avatars/" + user.getId() + "/" + fileName.replace(".jpg", "");
+        assertEquals(128, imageAt(stem + ".jpg").getWidth());
+        assertEquals(128, imageAt(stem + ".jpg").getHeight());
+        assertEquals(64, imageAt(stem + "-w64.jpg").getWidth());
+        assertEquals(64, imageAt(stem + "-w64.jpg").getHeight());
+    }
+
+    @Test
+    void updateAvatar_WithNonImage_ShouldThrow() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "me.txt", "text/plain", "hello".getBytes());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> avatarService.updateAvatar(user, file));
+    }
+
+    @Test
+    void getAvatar_AfterUpload_ShouldBeServedFromMemory() throws Exception {
+        // Arrange
+        when(userService.updateUser(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String avatarUrl = avatarService.updateAvatar(user, png(100, 100)).getAvatarUrl();
+        String fileName = avatarUrl.substring(avatarUrl.lastIndexOf('/') + 1);
+        long operationsAfterUpload = storageBackend.getOperations();
+
+        // Act
+        Optional<AvatarService.AvatarImage> small = avatarService.getAvatar(user.getId(), fileName, 40);
+        Optional<AvatarService.AvatarImage> large = avatarService.getAvatar(user.getId(), fileName, null);
+
+        // Assert
+        assertEquals(64, ImageIO.read(new ByteArrayInputStream(small.orElseThrow().content())).getWidth());
+        assertEquals(128, ImageIO.read(new ByteArrayInputStream(large.orElseThrow().content())).getWidth());
+        assertEquals(operationsAfterUpload, storageBackend.getOperations());
+        assertEquals(2L, avatarService.getStats().get("hits"));
+    }
+
+    @Test
+    void getAvatar_OnCacheMiss_ShouldLoadFromStorageOnce() throws Exception {
+        // Arrange
+        String fileName = "3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg";
+        byte[] content = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3 };
+        storageBackend.write("avatars/" + user.getId() + "/" + fileName,
+                new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        // Act
+        avatarService.getAvatar(user.getId(), fileName, 128);
+        long operations = storageBackend.getOperations();
+        Optional<AvatarService.AvatarImage> cached = avatarService.getAvatar(user.getId(), fileName, 128);
+
+        // Assert
+        assertArrayEquals(content, cached.orElseThrow().content());
+        assertEquals(operations, storageBackend.getOperations());
+    }
+
+    @Test
+    void getAvatar_WithUnknownOrInvalidName_ShouldBeEmpty() throws Exception {
+        // Act & Assert
+        assertTrue(avatarService.getAvatar(user.getId(), "3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg", 64).isEmpty());
+        assertTrue(avatarService.getAvatar(user.getId(), "../../posts/secret.jpg", 64).isEmpty());
+    }
+
+    private static MockMultipartFile png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("file", "me.png", "image/png", out.toByteArray());
+    }
+
+    private BufferedImage imageAt(String objectName) throws Exception {
+        try (var in = storageBackend.read(objectName)) {
+            return ImageIO.read(in);
+        }
+    }
+}
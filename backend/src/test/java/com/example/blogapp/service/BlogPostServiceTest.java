@@ -1,10 +1,16 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.TagDTO;
 import com.example.blogapp.entity.BlogPost;
+import com.example.blogapp.entity.Tag;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.repository.BlogPostRepository;
+import com.example.blogapp.repository.TagRepository;
 import com.example.blogapp.service.impl.BlogPostServiceImpl;
 import com.example.blogapp.util.BlogPostStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +21,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,6 +40,15 @@ class BlogPostServiceTest {
     @Mock
     private BlogPostRepository blogPostRepository;
 
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
     @InjectMocks
     private BlogPostServiceImpl blogPostService;
 
@@ -84,12 +102,331 @@ class BlogPostServiceTest {
     }
 
     @Test
-    void deletePost_WithValidId_ShouldDelete() {
+    void replaceImage_ShouldReleaseReplacedImage() throws Exception {
+        // Arrange
+        String previous = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        String replacement = "/api/files/posts/" + testId + "/7c9d0e1f-2a3b-4c5d-8e6f-9a0b1c2d3e4f.png";
+        testPost.setImageUrl(previous);
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+
+        // Act
+        BlogPost result = blogPostService.replaceImage(testId, replacement).orElseThrow();
+
+        // Assert
+        assertEquals(replacement, result.getImageUrl());
+        verify(fileStorageService).deleteFile(previous);
+    }
+
+    @Test
+    void replaceImage_WithSharedContentOrForeignFile_ShouldOnlyReleaseCountedReferences() throws Exception {
+        // Arrange
+        String shared = "/api/files/posts/" + UUID.randomUUID() + "/"
+                + "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.png";
+        String foreign = "/api/files/posts/" + UUID.randomUUID() + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        testPost.setImageUrl(shared);
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+
+        // Act
+        blogPostService.replaceImage(testId, foreign);
+        blogPostService.replaceImage(testId, "/api/files/posts/" + testId + "/new.png");
+
+        // Assert
+        verify(fileStorageService).deleteFile(shared);
+        verify(fileStorageService, never()).deleteFile(foreign);
+    }
+
+    @Test
+    void replaceImage_ShouldReloadPostSoConcurrentEditsAreKept() throws Exception {
+        // Arrange
+        String current = "/api/files/posts/" + testId + "/7c9d0e1f-2a3b-4c5d-8e6f-9a0b1c2d3e4f.png";
+        String replacement = "/api/files/posts/" + testId + "/new.png";
+        BlogPost edited = new BlogPost();
+        edited.setId(testId);
+        edited.setTitle("Edited during the upload");
+        edited.setImageUrl(current);
+        edited.setVersion(5L);
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(edited));
+        when(blogPostRepository.saveAndFlush(edited)).thenReturn(edited);
+
+        // Act
+        BlogPost result = blogPostService.replaceImage(testId, replacement).orElseThrow();
+
+        // Assert
+        assertEquals("Edited during the upload", result.getTitle());
+        assertEquals(replacement, result.getImageUrl());
+        verify(fileStorageService).deleteFile(current);
+    }
+
+    @Test
+    void updatePost_WithChanges_ShouldApplyThemToLoadedPost() {
+        // Arrange
+        testPost.setVersion(3L);
+        BlogPostDTO changes = BlogPostDTO.builder()
+                .title("Updated title")
+                .content("Updated content")
+                .status(BlogPostStatus.PUBLISHED)
+                .version(3L)
+                .build();
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+
+        // Act
+        Optional<BlogPost> result = blogPostService.updatePost(testId, changes);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Updated title", result.get().getTitle());
+        assertEquals("Updated content", result.get().getContent());
+        assertEquals(BlogPostStatus.PUBLISHED, result.get().getStatus());
+        assertNotNull(result.get().getReadTime());
+        verify(blogPostRepository).saveAndFlush(testPost);
+        verify(blogPostRepository, never()).save(any());
+    }
+
+    @Test
+    void updatePost_WithForeignImageUrl_ShouldKeepImageSoDeleteReleasesNothing() throws Exception {
+        // Arrange
+        String foreign = "/api/files/posts/" + UUID.randomUUID() + "/"
+                + "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.png";
+        BlogPostDTO changes = BlogPostDTO.builder()
+                .title("Test Blog Post")
+                .content("Test content")
+                .status(BlogPostStatus.DRAFT)
+                .imageUrl(foreign)
+                .build();
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+        when(blogPostRepository.findImageUrlsById(testId))
+                .thenAnswer(invocation -> Stream.ofNullable(testPost.getImageUrl()).toList());
+        when(blogPostRepository.deleteRowById(testId)).thenReturn(1);
+
+        // Act
+        blogPostService.updatePost(testId, changes);
+        blogPostService.deleteIfExists(testId);
+
+        // Assert
+        assertNull(testPost.getImageUrl());
+        assertThrows(IllegalArgumentException.class,
+                () -> blogPostService.patchPost(testId, json("{\"imageUrl\": \"" + foreign + "\"}")));
+        verify(fileStorageService, never()).deleteFile(any());
+    }
+
+    @Test
+    void updatePost_WithNonExistingId_ShouldReturnEmpty() {
+        // Arrange
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<BlogPost> result = blogPostService.updatePost(testId, new BlogPostDTO());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(blogPostRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updatePost_WithStaleVersion_ShouldThrowAndNotSave() {
+        // Arrange
+        testPost.setVersion(4L);
+        BlogPostDTO changes = BlogPostDTO.builder().title("Stale edit").version(3L).build();
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> blogPostService.updatePost(testId, changes));
+        assertEquals("Test Blog Post", testPost.getTitle());
+        verify(blogPostRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updatePost_WithTagsWithoutId_ShouldFindOrCreateThemByName() {
+        // Arrange
+        Tag existing = new Tag();
+        existing.setId(UUID.randomUUID());
+        existing.setName("java");
+        Tag created = new Tag();
+        created.setId(UUID.randomUUID());
+        created.setName("spring");
+        BlogPostDTO changes = BlogPostDTO.builder()
+                .title("Test Blog Post")
+                .content("Test content")
+                .status(BlogPostStatus.DRAFT)
+                .tags(Set.of(TagDTO.builder().name("java").build(), TagDTO.builder().name("spring").build()))
+                .build();
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+        when(tagRepository.findByName("java")).thenReturn(Optional.of(existing));
+        when(tagRepository.findByName("spring")).thenReturn(Optional.empty());
+        when(tagService.createTag(any(Tag.class))).thenReturn(created);
+
+        // Act
+        BlogPost result = blogPostService.updatePost(testId, changes).orElseThrow();
+
+        // Assert
+        assertEquals(Set.of(existing, created), result.getTags());
+        verify(tagService).createTag(argThat(tag -> "spring".equals(tag.getName())));
+    }
+
+    @Test
+    void updatePost_WithTagWithoutIdOrName_ShouldThrowAndNotSave() {
+        // Arrange
+        BlogPostDTO changes = BlogPostDTO.builder()
+                .title("Test Blog Post")
+                .tags(Set.of(new TagDTO()))
+                .build();
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> blogPostService.updatePost(testId, changes));
+        verify(blogPostRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchPost_WithStatusOnly_ShouldLeaveOtherFieldsAlone() throws Exception {
+        // Arrange
+        testPost.setReadTime("7 min");
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+
+        // Act
+        Optional<BlogPost> result = blogPostService.patchPost(testId, json("{\"status\": \"PUBLISHED\"}"));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(BlogPostStatus.PUBLISHED, result.get().getStatus());
+        assertEquals("Test Blog Post", result.get().getTitle());
+        assertEquals("Test content", result.get().getContent());
+        assertEquals("7 min", result.get().getReadTime());
+    }
+
+    @Test
+    void patchPost_WithChangedContent_ShouldRecomputeReadTimeOnce() throws Exception {
+        // Arrange
+        String longContent = "word ".repeat(450);
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+        JsonNode patch = json("{\"content\": \"" + longContent + "\"}");
+
+        // Act
+        blogPostService.patchPost(testId, patch);
+        String hash = testPost.getContentHash();
+        testPost.setReadTime("edited by hand");
+        blogPostService.patchPost(testId, patch);
+
+        // Assert
+        assertNotNull(hash);
+        assertEquals(64, hash.length());
+        assertEquals(hash, testPost.getContentHash());
+        // The second patch sent the same content, so the read time was kept
+        assertEquals("edited by hand", testPost.getReadTime());
+        assertEquals(longContent, testPost.getContent());
+    }
+
+    @Test
+    void patchPost_WithClearedReadTime_ShouldRecomputeIt() throws Exception {
+        // Arrange
+        testPost.setReadTime("7 min");
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+        when(blogPostRepository.saveAndFlush(testPost)).thenReturn(testPost);
+
+        // Act
+        blogPostService.patchPost(testId, json("{\"readTime\": null}"));
+
+        // Assert
+        assertEquals("1 min", testPost.getReadTime());
+    }
+
+    @Test
+    void patchPost_WithAuthor_ShouldBeRejectedBeforeLoading() throws Exception {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> blogPostService.patchPost(testId, json("{\"author\": {\"id\": \"" + testId + "\"}}")));
+        verify(blogPostRepository, never()).findById(any());
+    }
+
+    @Test
+    void patchPost_BeyondDtoLengthLimits_ShouldThrowAndNotSave() throws Exception {
+        // Arrange
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> blogPostService.patchPost(testId, json("{\"title\": \"ab\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> blogPostService.patchPost(testId, json("{\"description\": \"" + "x".repeat(501) + "\"}")));
+        assertEquals("Test Blog Post", testPost.getTitle());
+        verify(blogPostRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchPost_WithStaleVersion_ShouldThrowAndNotSave() throws Exception {
+        // Arrange
+        testPost.setVersion(2L);
+        when(blogPostRepository.findById(testId)).thenReturn(Optional.of(testPost));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> blogPostService.patchPost(testId, json("{\"title\": \"Late\", \"version\": 1}")));
+        verify(blogPostRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void deleteIfExists_WithExistingId_ShouldDeleteWithoutLoadingPostAndReleaseImage() throws Exception {
+        // Arrange
+        String imageUrl = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        when(blogPostRepository.findImageUrlsById(testId)).thenReturn(List.of(imageUrl));
+        when(blogPostRepository.deleteRowById(testId)).thenReturn(1);
+
         // Act
-        blogPostService.deletePost(testId);
+        boolean deleted = blogPostService.deleteIfExists(testId);
 
         // Assert
-        verify(blogPostRepository).deleteById(testId);
+        assertTrue(deleted);
+        verify(blogPostRepository, never()).findById(any());
+        verify(fileStorageService).deleteFile(imageUrl);
+    }
+
+    @Test
+    void deleteIfExists_ShouldReleaseEveryUploadedImage() throws Exception {
+        // Arrange
+        String shared = "/api/files/posts/" + testId + "/"
+                + "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.png";
+        String other = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        when(blogPostRepository.findImageUrlsById(testId)).thenReturn(List.of(shared));
+        when(blogPostRepository.findUploadedImageUrlsById(testId)).thenReturn(List.of(shared, other));
+        when(blogPostRepository.deleteRowById(testId)).thenReturn(1);
+
+        // Act
+        blogPostService.deleteIfExists(testId);
+
+        // Assert
+        // One reference for the cover image and one for each upload
+        verify(fileStorageService, times(2)).deleteFile(shared);
+        verify(fileStorageService).deleteFile(other);
+    }
+
+    @Test
+    void addImages_ShouldRecordEachUpload() {
+        // Arrange
+        String imageUrl = "/api/files/posts/" + testId + "/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+
+        // Act
+        blogPostService.addImages(testId, List.of(imageUrl, imageUrl));
+
+        // Assert
+        verify(blogPostRepository, times(2)).insertImage(any(UUID.class), eq(testId), eq(imageUrl));
+    }
+
+    @Test
+    void deleteIfExists_WithNonExistingId_ShouldReturnFalse() {
+        // Arrange
+        when(blogPostRepository.deleteRowById(testId)).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(blogPostService.deleteIfExists(testId));
+        verifyNoInteractions(fileStorageService);
     }
 
     @Test
@@ -277,4 +614,8 @@ class BlogPostServiceTest {
         // Verify that only published posts were searched
         verify(blogPostRepository).searchPosts(query, BlogPostStatus.PUBLISHED, pageable);
     }
-}
\ No newline at end of file
+
+    private static JsonNode json(String content) throws Exception {
+        return new ObjectMapper().readTree(content);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.dto.UploadSessionDTO;
+import com.example.blogapp.entity.UploadSession;
+import com.example.blogapp.repository.UploadSessionRepository;
+import com.example.blogapp.service.impl.ChunkedUploadServiceImpl;
+import com.example.blogapp.storage.ObjectSummary;
+import com.example.blogapp.storage.StorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    private ChunkedUploadServiceImpl chunkedUploadService;
+
+    private UploadSession session;
+    private UUID uploadId;
+
+    @BeforeEach
+    void setUp() {
+        chunkedUploadService = new ChunkedUploadServiceImpl(storageBackend, uploadSessionRepository);
+        ReflectionTestUtils.setField(chunkedUploadService, "chunkSize", 8 * MIB);
+        ReflectionTestUtils.setField(chunkedUploadService, "maxSize", 1024 * MIB);
+        ReflectionTestUtils.setField(chunkedUploadService, "expiryHours", 24);
+
+        uploadId = UUID.randomUUID();
+        session = new UploadSession();
+        session.setId(uploadId);
+        session.setObjectName("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f");
+        session.setContentType("image/png");
+        session.setTotalSize(20 * MIB);
+        session.setChunkSize(8 * MIB);
+        session.setPartCount(3);
+    }
+
+    @Test
+    void initUpload_ShouldSplitSizeIntoChunks() {
+        // Arrange
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UploadInitRequest request = UploadInitRequest.builder()
+                .fileName("photo.png")
+                .contentType("image/png")
+                .size(20 * MIB)
+                .build();
+
+        // Act
+        UploadSessionDTO result = chunkedUploadService.initUpload("posts/1", request);
+
+        // Assert
+        assertEquals(8 * MIB, result.getChunkSize());
+        assertEquals(3, result.getPartCount());
+        assertTrue(result.getReceivedParts().isEmpty());
+    }
+
+    @Test
+    void initUpload_ShouldNotTakeExtensionFromClientFileName() {
+        // Arrange
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UploadInitRequest request = UploadInitRequest.builder()
+                .fileName("page.html")
+                .contentType("text/html")
+                .size(MIB)
+                .build();
+
+        // Act
+        chunkedUploadService.initUpload("posts/1", request);
+
+        // Assert
+        ArgumentCaptor<UploadSession> saved = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(saved.capture());
+        assertTrue(saved.getValue().getObjectName().matches("posts/1/[0-9a-f-]{36}"));
+    }
+
+    @Test
+    void uploadPart_WithWrongLength_ShouldThrowException() {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.uploadPart(
+                "posts/1", uploadId, 3, new ByteArrayInputStream(new byte[10]), 10));
+        verifyNoInteractions(storageBackend);
+    }
+
+    @Test
+    void uploadPart_ForLastPart_ShouldStreamRemainderToPartObject() throws Exception {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+
+        // Act
+        boolean stored = chunkedUploadService.uploadPart(
+                "posts/1", uploadId, 3, new ByteArrayInputStream(new byte[0]), 4 * MIB);
+
+        // Assert
+        assertTrue(stored);
+        verify(storageBackend).write(eq("uploads/" + uploadId + "/3"), any(), eq(4 * MIB), any());
+    }
+
+    @Test
+    void uploadPart_ForFirstPart_ShouldStoreSniffedContentType() throws Exception {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+        byte[] jpeg = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 };
+
+        // Act
+        chunkedUploadService.uploadPart("posts/1", uploadId, 1, new ByteArrayInputStream(jpeg), 8 * MIB);
+
+        // Assert
+        assertEquals("image/jpeg", session.getContentType());
+        verify(uploadSessionRepository).save(session);
+        verify(storageBackend).write(eq("uploads/" + uploadId + "/1"), any(), eq(8 * MIB), any());
+    }
+
+    @Test
+    void uploadPart_ForFirstPartWithUnsupportedContent_ShouldThrowException() {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.uploadPart(
+                "posts/1", uploadId, 1, new ByteArrayInputStream("#!/bin/sh".getBytes()), 8 * MIB));
+        verifyNoInteractions(storageBackend);
+    }
+
+    @Test
+    void uploadPart_ForOtherPath_ShouldNotFindUpload() throws Exception {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+
+        // Act & Assert
+        assertFalse(chunkedUploadService.uploadPart(
+                "posts/2", uploadId, 1, new ByteArrayInputStream(new byte[0]), 8 * MIB));
+    }
+
+    @Test
+    void completeUpload_WithAllParts_ShouldComposeInOrderAndEndSession() throws Exception {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+        when(storageBackend.list("uploads/" + uploadId + "/")).thenReturn(listing(2, 3, 1));
+
+        // Act
+        Optional<String> url = chunkedUploadService.completeUpload("posts/1", uploadId);
+
+        // Assert
+        assertEquals(Optional.of("/api/files/posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png"), url);
+        List<String> inOrder = parts(1, 2, 3);
+        verify(storageBackend).compose("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png", inOrder, "image/png");
+        verify(storageBackend).delete(inOrder);
+        verify(uploadSessionRepository).delete(session);
+    }
+
+    @Test
+    void completeUpload_ShouldNameObjectAfterSniffedType() throws Exception {
+        // Arrange
+        session.setContentType("image/jpeg");
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+        when(storageBackend.list("uploads/" + uploadId + "/")).thenReturn(listing(1, 2, 3));
+
+        // Act
+        Optional<String> url = chunkedUploadService.completeUpload("posts/1", uploadId);
+
+        // Assert
+        assertEquals(Optional.of("/api/files/posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg"), url);
+        verify(storageBackend).compose("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg", parts(1, 2, 3), "image/jpeg");
+    }
+
+    @Test
+    void completeUpload_WithMissingParts_ShouldThrowException() throws Exception {
+        // Arrange
+        when(uploadSessionRepository.findById(uploadId)).thenReturn(Optional.of(session));
+        when(storageBackend.list("uploads/" + uploadId + "/")).thenReturn(listing(1, 3));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.completeUpload("posts/1", uploadId));
+        verify(storageBackend, never()).compose(any(), any(), any());
+    }
+
+    private List<String> parts(int... partNumbers) {
+        return Arrays.stream(partNumbers)
+                .mapToObj(partNumber -> "uploads/" + uploadId + "/" + partNumber)
+                .toList();
+    }
+
+    private Stream<ObjectSummary> listing(int... partNumbers) {
+        return parts(partNumbers).stream().map(name -> new ObjectSummary(name, 8 * MIB, 0));
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.blogapp.service;
 
+import com.example.blogapp.dto.CommentDTO;
 import com.example.blogapp.entity.BlogPost;
 import com.example.blogapp.entity.Comment;
 import com.example.blogapp.entity.User;
 import com.example.blogapp.repository.CommentRepository;
 import com.example.blogapp.service.impl.CommentServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -79,28 +83,104 @@ class CommentServiceTest {
     }
 
     @Test
-    void updateComment_WithValidComment_ShouldSaveAndReturnUpdatedComment() {
+    void updateComment_WithValidChanges_ShouldSaveAndReturnUpdatedComment() {
         // Arrange
         String updatedContent = "Updated comment content";
-        testComment.setContent(updatedContent);
-        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+        testComment.setVersion(1L);
+        CommentDTO changes = CommentDTO.builder().content(updatedContent).version(1L).build();
+        when(commentRepository.findById(testId)).thenReturn(Optional.of(testComment));
+        when(commentRepository.saveAndFlush(testComment)).thenReturn(testComment);
 
         // Act
-        Comment result = commentService.updateComment(testComment);
+        Optional<Comment> result = commentService.updateComment(testId, changes);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(updatedContent, result.getContent());
-        verify(commentRepository).save(testComment);
+        assertTrue(result.isPresent());
+        assertEquals(updatedContent, result.get().getContent());
+        assertEquals(testUser, result.get().getUser());
+        verify(commentRepository).saveAndFlush(testComment);
     }
 
     @Test
-    void deleteComment_WithValidId_ShouldDeleteComment() {
+    void updateComment_WithNonExistingId_ShouldReturnEmpty() {
+        // Arrange
+        when(commentRepository.findById(testId)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Comment> result = commentService.updateComment(testId, new CommentDTO());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateComment_WithStaleVersion_ShouldThrowAndNotSave() {
+        // Arrange
+        testComment.setVersion(2L);
+        CommentDTO changes = CommentDTO.builder().content("Stale edit").version(1L).build();
+        when(commentRepository.findById(testId)).thenReturn(Optional.of(testComment));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> commentService.updateComment(testId, changes));
+        assertEquals("Test comment", testComment.getContent());
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchComment_WithContent_ShouldSaveNewContent() throws Exception {
+        // Arrange
+        when(commentRepository.findById(testId)).thenReturn(Optional.of(testComment));
+        when(commentRepository.saveAndFlush(testComment)).thenReturn(testComment);
+
         // Act
-        commentService.deleteComment(testId);
+        Optional<Comment> result = commentService.patchComment(testId,
+                new ObjectMapper().readTree("{\"content\": \"Patched\"}"));
 
         // Assert
-        verify(commentRepository).deleteById(testId);
+        assertTrue(result.isPresent());
+        assertEquals("Patched", result.get().getContent());
+        assertEquals(testPost, result.get().getPost());
+    }
+
+    @Test
+    void patchComment_WithTooLongContent_ShouldThrowAndNotSave() throws Exception {
+        // Arrange
+        when(commentRepository.findById(testId)).thenReturn(Optional.of(testComment));
+        JsonNode patch = new ObjectMapper().readTree("{\"content\": \"" + "x".repeat(1001) + "\"}");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> commentService.patchComment(testId, patch));
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchComment_WithPost_ShouldBeRejected() throws Exception {
+        // Arrange
+        JsonNode patch = new ObjectMapper().readTree("{\"postId\": \"" + UUID.randomUUID() + "\"}");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> commentService.patchComment(testId, patch));
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void deleteIfExists_WithExistingId_ShouldReturnTrue() {
+        // Arrange
+        when(commentRepository.deleteRowById(testId)).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(commentService.deleteIfExists(testId));
+    }
+
+    @Test
+    void deleteIfExists_WithNonExistingId_ShouldReturnFalse() {
+        // Arrange
+        when(commentRepository.deleteRowById(testId)).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(commentService.deleteIfExists(testId));
     }
 
     @Test
@@ -0,0 +1,274 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.BlogPostDTO;
+import com.example.blogapp.dto.CommentDTO;
+import com.example.blogapp.dto.TagDTO;
+import com.example.blogapp.entity.BlogPost;
+import com.example.blogapp.entity.Comment;
+import com.example.blogapp.entity.Tag;
+import com.example.blogapp.entity.User;
+import com.example.blogapp.mapper.BlogPostMapper;
+import com.example.blogapp.mapper.CommentMapper;
+import com.example.blogapp.mapper.TagMapper;
+import com.example.blogapp.mapper.UserMapper;
+import com.example.blogapp.repository.BlogPostRepository;
+import com.example.blogapp.repository.CommentRepository;
+import com.example.blogapp.repository.TagRepository;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.impl.BlogPostServiceImpl;
+import com.example.blogapp.service.impl.CommentServiceImpl;
+import com.example.blogapp.service.impl.TagServiceImpl;
+import com.example.blogapp.util.BlogPostStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Open-in-view is off, so controllers map entities after the service
+ * transaction has ended. Each test calls a service the way a controller
+ * does and maps the result outside any transaction; a lazy association
+ * the service did not load fails with a LazyInitializationException.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BlogPostServiceImpl.class, CommentServiceImpl.class, TagServiceImpl.class,
+        BlogPostMapper.class, CommentMapper.class, UserMapper.class, TagMapper.class })
+class FetchBoundaryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private BlogPostMapper blogPostMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User author;
+    private BlogPost post;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPasswordHash("hash");
+        author = userRepository.save(author);
+
+        Tag java = tag("Java", "java");
+        Tag spring = tag("Spring", "spring");
+        for (int i = 0; i < 3; i++) {
+            BlogPost saved = new BlogPost();
+            saved.setTitle("Post " + i);
+            saved.setSlug("post-" + i);
+            saved.setContent("Content " + i);
+            saved.setStatus(BlogPostStatus.PUBLISHED);
+            saved.setPostDate(LocalDateTime.now().minusDays(i));
+            saved.setAuthor(author);
+            saved.setTags(new HashSet<>(Set.of(java, spring)));
+            post = blogPostRepository.save(saved);
+        }
+
+        Comment comment = new Comment();
+        comment.setContent("First");
+        comment.setPost(post);
+        comment.setUser(author);
+        commentRepository.save(comment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        blogPostRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void lazyAssociation_WhenNotFetched_ShouldFailOutsideTransaction() {
+        // Arrange: a plain page query without the entity graph
+        BlogPost unfetched = blogPostRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+
+        // Act & Assert
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+        assertThrows(LazyInitializationException.class, () -> blogPostMapper.toDTO(unfetched));
+    }
+
+    @Test
+    void publishedPosts_ShouldMapOutsideTransaction() {
+        // Act
+        List<BlogPostDTO> posts = blogPostService
+                .getPublishedPosts(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "postDate")))
+                .map(blogPostMapper::toDTO)
+                .getContent();
+
+        // Assert
+        assertEquals(3, posts.size());
+        posts.forEach(dto -> {
+            assertEquals("author", dto.getAuthor().getUsername());
+            assertEquals(2, dto.getTags().size());
+        });
+    }
+
+    @Test
+    void searchAndSingleLookups_ShouldMapOutsideTransaction() {
+        // Act
+        List<BlogPostDTO> found = blogPostService
+                .searchPosts("post", PageRequest.of(0, 10))
+                .map(blogPostMapper::toDTO)
+                .getContent();
+        BlogPostDTO byId = blogPostMapper.toDTO(blogPostService.getPostById(post.getId()).orElseThrow());
+        BlogPostDTO bySlug = blogPostMapper.toDTO(blogPostService.getPostBySlug(post.getSlug()).orElseThrow());
+        List<BlogPostDTO> byAuthor = blogPostService.getPostsByAuthor(author).stream()
+                .map(blogPostMapper::toDTO)
+                .toList();
+
+        // Assert
+        assertEquals(3, found.size());
+        assertEquals(2, byId.getTags().size());
+        assertEquals("author", bySlug.getAuthor().getUsername());
+        assertEquals(3, byAuthor.size());
+    }
+
+    @Test
+    void updatePost_FromDTO_ShouldMapOutsideTransaction() {
+        // Arrange: what PUT /api/posts/{id} sends
+        BlogPostDTO request = blogPostMapper.toDTO(blogPostService.getPostById(post.getId()).orElseThrow());
+        request.setTitle("Updated");
+
+        // Act
+        BlogPostDTO updated = blogPostMapper.toDTO(
+                blogPostService.updatePost(post.getId(), request).orElseThrow());
+
+        // Assert
+        assertEquals("Updated", updated.getTitle());
+        assertEquals(request.getVersion() + 1, updated.getVersion());
+        assertEquals("author@example.com", updated.getAuthor().getEmail());
+        assertEquals(Set.of("java", "spring"),
+                Set.copyOf(updated.getTags().stream().map(TagDTO::getSlug).toList()));
+    }
+
+    @Test
+    void comments_ShouldMapOutsideTransaction() {
+        // Act
+        List<CommentDTO> comments = commentService
+                .getCommentsByPost(post, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .map(commentMapper::toDTO)
+                .getContent();
+
+        CommentDTO edit = comments.get(0);
+        edit.setContent("Edited");
+        CommentDTO updated = commentMapper.toDTO(
+                commentService.updateComment(edit.getId(), edit).orElseThrow());
+
+        // Assert
+        assertEquals(1, comments.size());
+        assertEquals("author", comments.get(0).getAuthor().getUsername());
+        assertEquals(post.getId(), comments.get(0).getPostId());
+        assertEquals("Edited", updated.getContent());
+        assertEquals("author", updated.getAuthor().getUsername());
+    }
+
+    @Test
+    void patchPost_ShouldChangeOnlyNamedFieldsAndMapOutsideTransaction() throws Exception {
+        // Arrange
+        BlogPost before = blogPostRepository.findById(post.getId()).orElseThrow();
+
+        // Act
+        BlogPostDTO patched = blogPostMapper.toDTO(blogPostService.patchPost(post.getId(),
+                new ObjectMapper().readTree("{\"status\": \"DRAFT\", \"description\": null}")).orElseThrow());
+
+        // Assert
+        assertEquals(BlogPostStatus.DRAFT, patched.getStatus());
+        assertNull(patched.getDescription());
+        assertEquals(before.getContent(), patched.getContent());
+        assertEquals(before.getReadTime(), patched.getReadTime());
+        assertEquals(before.getVersion() + 1, patched.getVersion());
+        assertEquals(2, patched.getTags().size());
+    }
+
+    @Test
+    void updatePost_WithStaleVersion_ShouldBeRejected() {
+        // Arrange: two clients read the same version
+        BlogPostDTO first = blogPostMapper.toDTO(blogPostService.getPostById(post.getId()).orElseThrow());
+        BlogPostDTO second = blogPostMapper.toDTO(blogPostService.getPostById(post.getId()).orElseThrow());
+        first.setTitle("First edit");
+        second.setTitle("Second edit");
+        blogPostService.updatePost(post.getId(), first);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> blogPostService.updatePost(post.getId(), second));
+        assertEquals("First edit", blogPostRepository.findById(post.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void deleteIfExists_ShouldRemovePostWithCommentsAndTagLinks() {
+        // Act
+        boolean deleted = blogPostService.deleteIfExists(post.getId());
+        boolean deletedAgain = blogPostService.deleteIfExists(post.getId());
+
+        // Assert
+        assertTrue(deleted);
+        assertFalse(deletedAgain);
+        assertTrue(blogPostRepository.findById(post.getId()).isEmpty());
+        assertEquals(0, commentRepository.count());
+        assertEquals(2, tagRepository.count());
+        assertEquals(2, blogPostRepository.count());
+    }
+
+    private Tag tag(String name, String slug) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setSlug(slug);
+        return tagRepository.save(tag);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.entity.ImageDerivativeJob;
+import com.example.blogapp.repository.ImageDerivativeJobRepository;
+import com.example.blogapp.service.impl.ImageDerivativeServiceImpl;
+import com.example.blogapp.storage.StorageBackend;
+import com.example.blogapp.util.ImageDerivativeJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDerivativeServiceTest {
+
+    private static final String SOURCE = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @Mock
+    private ImageDerivativeJobRepository jobRepository;
+
+    private ImageDerivativeServiceImpl imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        imageDerivativeService = new ImageDerivativeServiceImpl(
+                storageBackend, jobRepository, new int[] { 640, 320, 1024 }, 1, 10);
+        ReflectionTestUtils.setField(imageDerivativeService, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(imageDerivativeService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(imageDerivativeService, "maxSourcePixels", 50_000_000L);
+        ReflectionTestUtils.setField(imageDerivativeService, "leaseMinutes", 15L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageDerivativeService.shutdown();
+    }
+
+    @Test
+    void variantFor_ShouldPickSmallestVariantAtLeastAsWide() {
+        assertEquals(Optional.of("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w320.png"),
+                imageDerivativeService.variantFor(SOURCE, 100));
+        assertEquals(Optional.of("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w640.png"),
+                imageDerivativeService.variantFor(SOURCE, 321));
+        assertEquals(Optional.of("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w1024.png"),
+                imageDerivativeService.variantFor(SOURCE, 4000));
+    }
+
+    @Test
+    void variantFor_WithNonImageOrInvalidWidth_ShouldNotResolve() {
+        assertEquals(Optional.empty(), imageDerivativeService.variantFor("posts/1/document.pdf", 320));
+        assertThrows(IllegalArgumentException.class, () -> imageDerivativeService.variantFor(SOURCE, 0));
+    }
+
+    @Test
+    void enqueue_ShouldPersistJobAndGenerateVariantsNarrowerThanOriginal() throws Exception {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        AtomicReference<ImageDerivativeJob> stored = new AtomicReference<>();
+        when(jobRepository.save(any(ImageDerivativeJob.class))).thenAnswer(invocation -> {
+            ImageDerivativeJob saved = invocation.getArgument(0);
+            saved.setId(jobId);
+            stored.set(saved);
+            return saved;
+        });
+        when(jobRepository.claim(eq(jobId), any(UUID.class), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepository.findById(jobId)).thenAnswer(invocation -> Optional.of(stored.get()));
+        byte[] png = png(800, 400);
+        when(storageBackend.read(SOURCE)).thenAnswer(invocation -> new ByteArrayInputStream(png));
+
+        // Act
+        imageDerivativeService.enqueue(SOURCE);
+
+        // Assert
+        ArgumentCaptor<String> variants = ArgumentCaptor.forClass(String.class);
+        verify(storageBackend, timeout(5000).times(2))
+                .write(variants.capture(), any(InputStream.class), anyLong(), eq("image/png"));
+        assertEquals(List.of(
+                        "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w320.png",
+                        "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w640.png"),
+                variants.getAllValues());
+
+        // Saved once as PENDING, then finished under the claim that started it
+        ArgumentCaptor<UUID> claim = ArgumentCaptor.forClass(UUID.class);
+        verify(jobRepository).claim(eq(jobId), claim.capture(), any(LocalDateTime.class));
+        verify(jobRepository, timeout(5000))
+                .finish(eq(jobId), eq(claim.getValue()), eq(ImageDerivativeJobStatus.DONE), isNull(), any(LocalDateTime.class));
+        verify(jobRepository, times(1)).save(any(ImageDerivativeJob.class));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stages = (Map<String, Object>) imageDerivativeService.getStats().get("stages");
+        assertTrue(stages.keySet().containsAll(List.of("download", "decode", "resize", "encode", "upload", "total")));
+    }
+
+    @Test
+    void enqueue_WithVariantName_ShouldNotCreateJob() {
+        // Act
+        imageDerivativeService.enqueue("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w320.png");
+
+        // Assert
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    void process_WhenClaimedElsewhere_ShouldNotRunJob() throws Exception {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.save(any(ImageDerivativeJob.class))).thenAnswer(invocation -> {
+            ImageDerivativeJob saved = invocation.getArgument(0);
+            saved.setId(jobId);
+            return saved;
+        });
+        when(jobRepository.claim(eq(jobId), any(UUID.class), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act
+        imageDerivativeService.enqueue(SOURCE);
+
+        // Assert
+        verify(jobRepository, timeout(5000)).claim(eq(jobId), any(UUID.class), any(LocalDateTime.class));
+        verify(jobRepository, never()).findById(any());
+        verify(jobRepository, never()).finish(any(), any(), any(), any(), any());
+        verifyNoInteractions(storageBackend);
+    }
+
+    @Test
+    void resumePendingJobs_ShouldOnlyReleaseClaimsPastTheLease() {
+        // Arrange
+        LocalDateTime before = LocalDateTime.now().minusMinutes(15);
+        when(jobRepository.releaseExpiredClaims(any(LocalDateTime.class))).thenReturn(1);
+        ImageDerivativeJob pending = new ImageDerivativeJob();
+        pending.setId(UUID.randomUUID());
+        pending.setSourceObject(SOURCE);
+        pending.setStatus(ImageDerivativeJobStatus.PENDING);
+        when(jobRepository.findByStatusOrderByCreatedAtAsc(eq(ImageDerivativeJobStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(pending));
+
+        // Act
+        imageDerivativeService.resumePendingJobs();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).releaseExpiredClaims(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(14)));
+        verify(jobRepository, timeout(5000)).claim(eq(pending.getId()), any(UUID.class), any(LocalDateTime.class));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
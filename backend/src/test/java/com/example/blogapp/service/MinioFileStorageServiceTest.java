@@ -0,0 +1,303 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.DirectUploadDTO;
+import com.example.blogapp.dto.UploadInitRequest;
+import com.example.blogapp.entity.StoredFile;
+import com.example.blogapp.repository.StoredFileRepository;
+import com.example.blogapp.service.impl.MinioFileStorageServiceImpl;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.StorageGuard;
+import io.minio.CopyObjectArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MinioFileStorageServiceTest {
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    // SHA-256 of the PNG signature followed by "hello"
+    private static final String CONTENT_SHA256 = "0e8754cfeb908584f7a2f2ccd08e37fda8d3d540cbaf2e16ac559c7ea59a7151";
+    private static final String CONTENT_OBJECT = "posts/1/" + CONTENT_SHA256 + ".png";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private DiskObjectCache diskObjectCache;
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    private final StorageGuard storageGuard = new StorageGuard(20, 10, 50, 10_000, 3, 64, 100);
+
+    private MinioFileStorageServiceImpl fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new MinioFileStorageServiceImpl(
+                minioClient, minioClient, diskObjectCache, storedFileRepository, storageGuard, 100);
+        configure(fileStorageService);
+    }
+
+    @Test
+    void getPresignedUrl_CalledTwice_ShouldSignOnce() throws Exception {
+        // Arrange
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("http://minio/signed-1", "http://minio/signed-2");
+
+        // Act
+        String first = fileStorageService.getPresignedUrl("/api/files/posts/1/image.png", 60);
+        String second = fileStorageService.getPresignedUrl("posts/1/image.png", 60);
+
+        // Assert
+        assertEquals("http://minio/signed-1", first);
+        assertEquals(first, second);
+        verify(minioClient, times(1)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+    }
+
+    @Test
+    void getPresignedUrl_ShouldSignForPublicEndpoint() throws Exception {
+        // Arrange
+        MinioClient presignClient = MinioClient.builder()
+                .endpoint("https://files.example.com")
+                .region("us-east-1")
+                .credentials("access", "secret")
+                .build();
+        MinioFileStorageServiceImpl service = new MinioFileStorageServiceImpl(
+                minioClient, presignClient, diskObjectCache, storedFileRepository, storageGuard, 100);
+        configure(service);
+
+        // Act
+        URI url = URI.create(service.getPresignedUrl("posts/1/image.png", 60));
+
+        // Assert
+        assertEquals("https", url.getScheme());
+        assertEquals("files.example.com", url.getHost());
+        assertEquals("/blog-files/posts/1/image.png", url.getPath());
+        assertTrue(url.getQuery().contains("X-Amz-Signature="));
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void getPresignedUrl_WhenCachedUrlTooShortLived_ShouldSignAgain() throws Exception {
+        // Arrange
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("http://minio/signed-1", "http://minio/signed-2");
+
+        // Act
+        fileStorageService.getPresignedUrl("posts/1/image.png", 60);
+        String longLived = fileStorageService.getPresignedUrl("posts/1/image.png", 2 * 1440);
+
+        // Assert
+        assertEquals("http://minio/signed-2", longLived);
+    }
+
+    @Test
+    void deleteFile_ShouldEvictCachedUrl() throws Exception {
+        // Arrange
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("http://minio/signed-1", "http://minio/signed-2");
+        fileStorageService.getPresignedUrl("posts/1/image.png", 60);
+
+        // Act
+        fileStorageService.deleteFile("/api/files/posts/1/image.png");
+        String afterDelete = fileStorageService.getPresignedUrl("posts/1/image.png", 60);
+
+        // Assert
+        assertEquals("http://minio/signed-2", afterDelete);
+        verify(minioClient).removeObject(any(RemoveObjectArgs.class));
+        verify(diskObjectCache).evict("posts/1/image.png");
+    }
+
+    @Test
+    void storeFile_WithNewContent_ShouldCopyStagedUploadToContentAddress() throws Exception {
+        // Arrange
+        drainUploads();
+        when(storedFileRepository.incrementReferences(CONTENT_SHA256)).thenReturn(0);
+        when(storedFileRepository.insertIfAbsent(eq(CONTENT_SHA256), eq(CONTENT_OBJECT), eq(13L), eq("image/png")))
+                .thenReturn(1);
+
+        // Act
+        String url = fileStorageService.storeFile(file(), "posts/1");
+
+        // Assert
+        assertEquals("/api/files/" + CONTENT_OBJECT, url);
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> args.object().startsWith("staging/")));
+        verify(minioClient).copyObject(argThat((CopyObjectArgs args) -> args.object().equals(CONTENT_OBJECT)));
+        verify(minioClient).removeObject(argThat((RemoveObjectArgs args) -> args.object().startsWith("staging/")));
+    }
+
+    @Test
+    void storeFile_WithKnownContent_ShouldReuseExistingObject() throws Exception {
+        // Arrange
+        StoredFile existing = new StoredFile();
+        existing.setSha256(CONTENT_SHA256);
+        existing.setObjectName("posts/other/" + CONTENT_SHA256 + ".png");
+        drainUploads();
+        when(storedFileRepository.incrementReferences(CONTENT_SHA256)).thenReturn(1);
+        when(storedFileRepository.findById(CONTENT_SHA256)).thenReturn(Optional.of(existing));
+
+        // Act
+        String url = fileStorageService.storeFile(file(), "posts/1");
+
+        // Assert
+        assertEquals("/api/files/posts/other/" + CONTENT_SHA256 + ".png", url);
+        verify(minioClient, never()).copyObject(any(CopyObjectArgs.class));
+        verify(storedFileRepository, never()).insertIfAbsent(any(), any(), anyLong(), any());
+        verify(minioClient).removeObject(argThat((RemoveObjectArgs args) -> args.object().startsWith("staging/")));
+    }
+
+    @Test
+    void storeFile_WithUnsupportedContent_ShouldRejectBeforeUpload() {
+        // Arrange
+        MockMultipartFile disguised = new MockMultipartFile("file", "photo.png", "image/png",
+                "<html>".getBytes(StandardCharsets.US_ASCII));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.storeFile(disguised, "posts/1"));
+        verifyNoInteractions(minioClient, storedFileRepository);
+    }
+
+    @Test
+    void deleteFile_WhenContentStillReferenced_ShouldKeepObject() throws Exception {
+        // Arrange
+        when(storedFileRepository.decrementReferences(CONTENT_OBJECT)).thenReturn(1);
+        when(storedFileRepository.deleteUnreferenced(CONTENT_OBJECT)).thenReturn(0);
+
+        // Act
+        fileStorageService.deleteFile("/api/files/" + CONTENT_OBJECT);
+
+        // Assert
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+        verify(diskObjectCache, never()).evict(any());
+    }
+
+    @Test
+    void createDirectUpload_ShouldSignPolicyForServerChosenKey() throws Exception {
+        // Arrange
+        when(minioClient.getPresignedPostFormData(any(PostPolicy.class)))
+                .thenReturn(Map.of("policy", "p", "x-amz-signature", "s"));
+        UploadInitRequest request = UploadInitRequest.builder()
+                .fileName("Photo.PNG")
+                .contentType("image/png")
+                .size(512)
+                .build();
+
+        // Act
+        DirectUploadDTO upload = fileStorageService.createDirectUpload("posts/1", request);
+
+        // Assert
+        assertEquals("https://files.example.com/blog-files", upload.getUrl());
+        assertTrue(upload.getObjectName().matches("posts/1/[0-9a-f-]{36}\\.png"));
+        assertEquals(upload.getObjectName(), upload.getFields().get("key"));
+        assertEquals("image/png", upload.getFields().get("Content-Type"));
+        assertEquals("s", upload.getFields().get("x-amz-signature"));
+    }
+
+    @Test
+    void createDirectUpload_WithDisallowedContentType_ShouldThrowException() {
+        // Arrange
+        UploadInitRequest request = UploadInitRequest.builder()
+                .fileName("script.html")
+                .contentType("text/html")
+                .size(512)
+                .build();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.createDirectUpload("posts/1", request));
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void completeDirectUpload_ForObjectOutsidePath_ShouldReturnEmpty() throws Exception {
+        assertTrue(fileStorageService.completeDirectUpload("posts/1",
+                "posts/2/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png").isEmpty());
+        assertTrue(fileStorageService.completeDirectUpload("posts/1", "posts/1/../secret").isEmpty());
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void completeDirectUpload_WithOversizedObject_ShouldRemoveItAndThrow() throws Exception {
+        // Arrange
+        String objectName = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(4096L);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.completeDirectUpload("posts/1", objectName));
+        verify(minioClient).removeObject(argThat((RemoveObjectArgs args) -> args.object().equals(objectName)));
+    }
+
+    @Test
+    void completeDirectUpload_WhenContentDoesNotMatchDeclaredType_ShouldRemoveItAndThrow() throws Exception {
+        // Arrange
+        String objectName = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(512L);
+        when(stat.contentType()).thenReturn("image/png");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(
+                Headers.of(), "blog-files", "", objectName,
+                new ByteArrayInputStream("%PDF-1.7".getBytes(StandardCharsets.US_ASCII))));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.completeDirectUpload("posts/1", objectName));
+        verify(minioClient).removeObject(argThat((RemoveObjectArgs args) -> args.object().equals(objectName)));
+    }
+
+    // The service hashes the upload while storage reads it, so the stub has
+    // to consume the stream the way MinIO would
+    private void drainUploads() throws Exception {
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, PutObjectArgs.class).stream().readAllBytes();
+            return null;
+        });
+    }
+
+    private static MockMultipartFile file() {
+        byte[] content = new byte[PNG_SIGNATURE.length + 5];
+        System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+        System.arraycopy("hello".getBytes(StandardCharsets.US_ASCII), 0, content, PNG_SIGNATURE.length, 5);
+        return new MockMultipartFile("file", "photo.PNG", "image/png", content);
+    }
+
+    private static void configure(MinioFileStorageServiceImpl fileStorageService) {
+        ReflectionTestUtils.setField(fileStorageService, "bucket", "blog-files");
+        ReflectionTestUtils.setField(fileStorageService, "presignTtlMinutes", 1440);
+        ReflectionTestUtils.setField(fileStorageService, "presignRefreshMarginMinutes", 5);
+        ReflectionTestUtils.setField(fileStorageService, "minioPublicEndpoint", "https://files.example.com");
+        ReflectionTestUtils.setField(fileStorageService, "directUploadMaxSize", 1024L);
+        ReflectionTestUtils.setField(fileStorageService, "directUploadExpiryMinutes", 10);
+        ReflectionTestUtils.setField(fileStorageService, "directUploadContentTypes", List.of("image/png"));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.dto.OrphanCollectionReport;
+import com.example.blogapp.repository.BlogPostRepository;
+import com.example.blogapp.repository.StoredFileRepository;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.service.impl.FileStorageServiceImpl;
+import com.example.blogapp.service.impl.OrphanFileCollectionServiceImpl;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.InMemoryStorageBackend;
+import com.example.blogapp.storage.ObjectSummary;
+import com.example.blogapp.storage.StorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanFileCollectionServiceTest {
+
+    private static final long OLD = 0L;
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', '0', '1', '2', '3' };
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @Mock
+    private DiskObjectCache diskObjectCache;
+
+    @Mock
+    private BlogPostRepository blogPostRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private ClusterLockService clusterLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrphanFileCollectionServiceImpl orphanFileCollectionService;
+
+    @BeforeEach
+    void setUp() {
+        orphanFileCollectionService = collectorOver(storageBackend);
+    }
+
+    @Test
+    void collect_ShouldDeleteOnlyOldUnreferencedObjects() throws Exception {
+        // Arrange
+        holdLock();
+        stubReferencesAndListing();
+
+        // Act
+        OrphanCollectionReport report = orphanFileCollectionService.collect(false).orElseThrow();
+
+        // Assert
+        verify(storageBackend).delete(List.of("posts/1/replaced.png", "staging/3f2b6c1e"));
+        verify(diskObjectCache).evict("posts/1/replaced.png");
+        assertEquals(6, report.getScannedObjects());
+        assertEquals(1, report.getSkippedRecent());
+        assertEquals(2, report.getOrphanedObjects());
+        assertEquals(300, report.getOrphanedBytes());
+        assertEquals(2, report.getDeletedObjects());
+        assertEquals(Optional.of(report), orphanFileCollectionService.getLastReport());
+    }
+
+    @Test
+    void collect_InDryRun_ShouldOnlyReport() throws Exception {
+        // Arrange
+        holdLock();
+        stubReferencesAndListing();
+
+        // Act
+        OrphanCollectionReport report = orphanFileCollectionService.collect(true).orElseThrow();
+
+        // Assert
+        assertTrue(report.isDryRun());
+        assertEquals(List.of("posts/1/replaced.png", "staging/3f2b6c1e"), report.getSampleOrphans());
+        assertEquals(0, report.getDeletedObjects());
+        verify(storageBackend, never()).delete(anyCollection());
+        verify(storedFileRepository, never()).deleteByObjectNameInAndUpdatedAtBefore(any(), any());
+    }
+
+    @Test
+    void collect_WhenContentReusedDuringRun_ShouldKeepIt() throws Exception {
+        // Arrange
+        holdLock();
+        stubReferencesAndListing();
+        when(storedFileRepository.findObjectNamesIn(List.of("posts/1/replaced.png", "staging/3f2b6c1e")))
+                .thenReturn(List.of("posts/1/replaced.png"));
+
+        // Act
+        OrphanCollectionReport report = orphanFileCollectionService.collect(false).orElseThrow();
+
+        // Assert
+        verify(storageBackend).delete(List.of("staging/3f2b6c1e"));
+        assertEquals(1, report.getDeletedObjects());
+    }
+
+    @Test
+    void collect_ShouldKeepAllRenditionsOfUploadedAvatar() throws Exception {
+        // Arrange
+        holdLock();
+        ReflectionTestUtils.setField(orphanFileCollectionService, "prefixes", List.of("avatars/"));
+        when(blogPostRepository.streamImageUrls()).thenReturn(Stream.empty());
+        when(userRepository.streamAvatarUrls()).thenReturn(Stream.of(
+                "/api/avatars/7/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg"));
+        when(storageBackend.list("avatars/")).thenReturn(Stream.of(
+                new ObjectSummary("avatars/7/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.jpg", 100, OLD),
+                new ObjectSummary("avatars/7/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w64.jpg", 50, OLD),
+                new ObjectSummary("avatars/7/0a1b2c3d-0000-4000-8000-000000000000.jpg", 100, OLD),
+                new ObjectSummary("avatars/7/0a1b2c3d-0000-4000-8000-000000000000-w64.jpg", 50, OLD)));
+
+        // Act
+        OrphanCollectionReport report = orphanFileCollectionService.collect(false).orElseThrow();
+
+        // Assert
+        verify(storageBackend).delete(List.of(
+                "avatars/7/0a1b2c3d-0000-4000-8000-000000000000.jpg",
+                "avatars/7/0a1b2c3d-0000-4000-8000-000000000000-w64.jpg"));
+        assertEquals(2, report.getDeletedObjects());
+    }
+
+    @Test
+    void collect_AfterMultiImageUpload_ShouldKeepTheRecordedImages() throws Exception {
+        // Arrange
+        InMemoryStorageBackend storage = new InMemoryStorageBackend();
+        FileStorageService fileStorageService = new FileStorageServiceImpl(storage);
+        List<String> imageUrls = List.of(
+                fileStorageService.storeFile(new MockMultipartFile("files", "a.png", "image/png", PNG), "posts/1"),
+                fileStorageService.storeFile(new MockMultipartFile("files", "b.png", "image/png", PNG), "posts/1"));
+        String unrecorded = fileStorageService.storeFile(
+                new MockMultipartFile("file", "c.png", "image/png", PNG), "posts/2");
+        orphanFileCollectionService = collectorOver(storage);
+        ReflectionTestUtils.setField(orphanFileCollectionService, "minAgeHours", 0);
+        holdLock();
+        when(blogPostRepository.streamUploadedImageUrls()).thenReturn(imageUrls.stream());
+
+        // Act
+        OrphanCollectionReport report = orphanFileCollectionService.collect(false).orElseThrow();
+
+        // Assert
+        for (String imageUrl : imageUrls) {
+            assertTrue(storage.stat(imageUrl.replace("/api/files/", "")).isPresent());
+        }
+        assertTrue(storage.stat(unrecorded.replace("/api/files/", "")).isEmpty());
+        assertEquals(1, report.getDeletedObjects());
+    }
+
+    @Test
+    void collect_WhenLockHeldElsewhere_ShouldSkip() throws Exception {
+        // Arrange
+        when(clusterLockService.runExclusively(any(), any())).thenReturn(Optional.empty());
+
+        // Act
+        Optional<OrphanCollectionReport> report = orphanFileCollectionService.collect(false);
+
+        // Assert
+        assertTrue(report.isEmpty());
+        verifyNoInteractions(storageBackend, blogPostRepository);
+    }
+
+    private OrphanFileCollectionServiceImpl collectorOver(StorageBackend storage) {
+        OrphanFileCollectionServiceImpl collector = new OrphanFileCollectionServiceImpl(storage, diskObjectCache,
+                blogPostRepository, userRepository, storedFileRepository, clusterLockService, transactionManager);
+        ReflectionTestUtils.setField(collector, "prefixes", List.of("posts/", "avatars/", "staging/"));
+        ReflectionTestUtils.setField(collector, "minAgeHours", 24);
+        ReflectionTestUtils.setField(collector, "batchSize", 500);
+        ReflectionTestUtils.setField(collector, "maxDeletesPerSecond", 1_000_000);
+        return collector;
+    }
+
+    private void holdLock() {
+        when(clusterLockService.runExclusively(any(), any())).thenAnswer(invocation -> {
+            Supplier<?> task = invocation.getArgument(1);
+            return Optional.ofNullable(task.get());
+        });
+    }
+
+    private void stubReferencesAndListing() throws Exception {
+        when(blogPostRepository.streamImageUrls()).thenReturn(Stream.of(
+                "/api/files/posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png"));
+        when(userRepository.streamAvatarUrls()).thenReturn(Stream.of(
+                "http://localhost:8080/api/files/avatars/7/9a0b1c2d.jpg",
+                "https://www.gravatar.com/avatar/abc"));
+        when(storageBackend.list("posts/")).thenReturn(Stream.of(
+                new ObjectSummary("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png", 100, OLD),
+                new ObjectSummary("posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f-w320.png", 100, OLD),
+                new ObjectSummary("posts/1/replaced.png", 100, OLD),
+                new ObjectSummary("posts/2/just-uploaded.png", 100, System.currentTimeMillis())));
+        when(storageBackend.list("avatars/")).thenReturn(Stream.of(
+                new ObjectSummary("avatars/7/9a0b1c2d.jpg", 100, OLD)));
+        when(storageBackend.list("staging/")).thenReturn(Stream.of(
+                new ObjectSummary("staging/3f2b6c1e", 200, OLD)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.blogapp.service;
+
+import com.example.blogapp.config.PasswordConfig;
+import com.example.blogapp.dto.auth.AuthResponse;
+import com.example.blogapp.dto.auth.RegisterRequest;
+import com.example.blogapp.entity.User;
+import com.example.blogapp.mapper.UserMapper;
+import com.example.blogapp.repository.UserRepository;
+import com.example.blogapp.security.JwtService;
+import com.example.blogapp.service.impl.AuthServiceImpl;
+import com.example.blogapp.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration does not pre-check names; the unique indexes on
+ * lower(username) and lower(email) decide. Parallel registrations that
+ * differ only in case race for the same index entry, each in its own
+ * committed transaction, and exactly one may win.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ AuthServiceImpl.class, UserServiceImpl.class, UserMapper.class, PasswordConfig.class })
+class RegistrationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final String[] USERNAMES = { "alice", "Alice", "ALICE", "aLiCe", "AlIcE", "alicE", "ALice", "aliCE" };
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private AuthenticationManager authenticationManager;
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtService.generateToken(any(User.class))).thenReturn("token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void register_WithUsernamesDifferingOnlyInCase_ShouldCreateExactlyOneUser() throws Exception {
+        assertExactlyOneRegistration(i -> request(USERNAMES[i], "alice" + i + "@example.com"));
+    }
+
+    @Test
+    void register_WithEmailsDifferingOnlyInCase_ShouldCreateExactlyOneUser() throws Exception {
+        assertExactlyOneRegistration(i -> request("user" + i, USERNAMES[i] + "@Example.com"));
+    }
+
+    private void assertExactlyOneRegistration(IntFunction<RegisterRequest> requests) throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AuthResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                RegisterRequest request = requests.apply(i);
+                Callable<AuthResponse> task = () -> {
+                    start.await();
+                    return authService.register(request);
+                };
+                results.add(executor.submit(task));
+            }
+
+            // Act
+            start.countDown();
+
+            int succeeded = 0;
+            int rejected = 0;
+            for (Future<AuthResponse> result : results) {
+                try {
+                    assertEquals("token", result.get(30, TimeUnit.SECONDS).getToken());
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                    assertEquals("Username or email already exists", e.getCause().getMessage());
+                    rejected++;
+                }
+            }
+
+            // Assert
+            assertEquals(1, succeeded);
+            assertEquals(THREADS - 1, rejected);
+            assertEquals(1, userRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RegisterRequest request(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        return request;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.blogapp.entity.User;
 import com.example.blogapp.exception.InvalidPasswordException;
 import com.example.blogapp.repository.UserRepository;
 import com.example.blogapp.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -56,7 +57,7 @@ class UserServiceTest {
     @Test
     void createUser_WithValidUser_ShouldSaveAndReturnUser() {
         // Arrange
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         User result = userService.createUser(testUser);
@@ -66,7 +67,7 @@ class UserServiceTest {
         assertEquals(testId, result.getId());
         assertEquals(testUser.getUsername(), result.getUsername());
         assertEquals(testUser.getEmail(), result.getEmail());
-        verify(userRepository).save(testUser);
+        verify(userRepository).saveAndFlush(testUser);
     }
 
     @Test
@@ -85,6 +86,54 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    void patchProfile_ShouldChangeOnlySuppliedFields() throws Exception {
+        // Arrange
+        testUser.setBio("Old bio");
+        testUser.setAvatarUrl("/api/avatars/old-128.jpg");
+        when(userRepository.findById(testId)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        // Act
+        Optional<User> result = userService.patchProfile(testId,
+                new ObjectMapper().readTree("{\"bio\": \"New bio\", \"fullName\": null}"));
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("New bio", result.get().getBio());
+        assertNull(result.get().getFullName());
+        assertEquals("/api/avatars/old-128.jpg", result.get().getAvatarUrl());
+    }
+
+    @Test
+    void patchProfile_WithAvatarUrl_ShouldBeRejected() throws Exception {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.patchProfile(testId,
+                new ObjectMapper().readTree("{\"avatarUrl\": \"/api/files/posts/1/a.png\"}")));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchProfile_BeyondDtoLengthLimits_ShouldThrowAndNotSave() throws Exception {
+        // Arrange
+        when(userRepository.findById(testId)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.patchProfile(testId,
+                new ObjectMapper().readTree("{\"fullName\": \"" + "x".repeat(101) + "\"}")));
+        assertThrows(IllegalArgumentException.class, () -> userService.patchProfile(testId,
+                new ObjectMapper().readTree("{\"bio\": \"" + "x".repeat(501) + "\"}")));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchProfile_WithEmail_ShouldBeRejected() throws Exception {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.patchProfile(testId,
+                new ObjectMapper().readTree("{\"email\": \"other@example.com\"}")));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void deleteUser_WithValidId_ShouldDeleteUser() {
         // Act
@@ -0,0 +1,96 @@
+package com.example.blogapp.storage;
+
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BucketInitializerTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    private BucketInitializer bucketInitializer;
+
+    @AfterEach
+    void tearDown() {
+        bucketInitializer.shutdown();
+    }
+
+    @Test
+    void start_WithStalledStorage_ShouldNotBlock() throws Exception {
+        // Arrange
+        CountDownLatch stalled = new CountDownLatch(1);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenAnswer(invocation -> {
+            stalled.await();
+            return true;
+        });
+        bucketInitializer = new BucketInitializer(minioClient, "blog-files", 10, 100);
+
+        // Act
+        long startedAt = System.nanoTime();
+        bucketInitializer.start();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // Assert
+        assertTrue(elapsed.compareTo(Duration.ofMillis(500)) < 0, "start() took " + elapsed);
+        assertFalse(bucketInitializer.isReady());
+        stalled.countDown();
+        awaitReady();
+    }
+
+    @Test
+    void start_WhenStorageUnavailable_ShouldRetryUntilReady() throws Exception {
+        // Arrange
+        when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenReturn(true);
+        bucketInitializer = new BucketInitializer(minioClient, "blog-files", 10, 100);
+
+        // Act
+        bucketInitializer.start();
+
+        // Assert
+        awaitReady();
+        assertEquals(3, bucketInitializer.getStats().get("attempts"));
+        assertNull(bucketInitializer.getStats().get("lastError"));
+        verify(minioClient, never()).makeBucket(any());
+    }
+
+    @Test
+    void start_WhenBucketMissing_ShouldCreateIt() throws Exception {
+        // Arrange
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
+        bucketInitializer = new BucketInitializer(minioClient, "blog-files", 10, 100);
+
+        // Act
+        bucketInitializer.start();
+
+        // Assert
+        awaitReady();
+        verify(minioClient).makeBucket(any(MakeBucketArgs.class));
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!bucketInitializer.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(bucketInitializer.isReady());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.blogapp.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DiskObjectCacheTest {
+
+    private static final String OBJECT_A = "posts/1/3f2b6c1e-8a4d-4c7b-9e2f-1a2b3c4d5e6f.png";
+    private static final String OBJECT_B = "posts/1/7c9d0e1f-2a3b-4c5d-8e6f-9a0b1c2d3e4f.png";
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @Mock
+    private StorageBackend storageBackend;
+
+    @TempDir
+    Path tempDir;
+
+    private DiskObjectCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(storageBackend.stat(any())).thenReturn(Optional.of(
+                new ObjectMetadata(CONTENT.length, "abc123", 1704067200000L, "image/png")));
+        when(storageBackend.read(any())).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+
+        // Room for exactly two objects
+        cache = new DiskObjectCache(storageBackend, true,
+                tempDir.resolve("cache").toString(), 20, 15);
+    }
+
+    @Test
+    void isCacheable_ShouldOnlyAcceptUuidNamedObjects() {
+        assertTrue(cache.isCacheable(OBJECT_A));
+        assertFalse(cache.isCacheable("posts/1/image.png"));
+    }
+
+    @Test
+    void getOrFetch_CalledTwice_ShouldFetchOnceAndServeFromDisk() throws Exception {
+        // Act
+        CachedObject first = cache.getOrFetch(OBJECT_A);
+        CachedObject second = cache.getOrFetch(OBJECT_A);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.transfer(second, 2, 4, out);
+
+        // Assert
+        assertSame(first, second);
+        assertArrayEquals(CONTENT, Files.readAllBytes(first.path()));
+        assertEquals("2345", out.toString());
+        verify(storageBackend, times(1)).read(any());
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(4L, stats.get("bytesSaved"));
+    }
+
+    @Test
+    void getOrFetch_WithConcurrentMisses_ShouldCollapseIntoOneFetch() throws Exception {
+        // Arrange
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(storageBackend.read(any())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await();
+            return new ByteArrayInputStream(CONTENT);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            List<Future<CachedObject>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getOrFetch(OBJECT_A)));
+            fetchStarted.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.getOrFetch(OBJECT_A)));
+            }
+            // Give the followers time to join the in-flight fetch
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            // Assert
+            CachedObject expected = results.get(0).get();
+            for (Future<CachedObject> result : results) {
+                assertSame(expected, result.get());
+            }
+            verify(storageBackend, times(1)).read(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrFetch_BeyondMaxBytes_ShouldEvictLeastRecentlyUsed() throws Exception {
+        // Arrange
+        String objectC = "posts/1/0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d.png";
+        cache.getOrFetch(OBJECT_A);
+        cache.getOrFetch(OBJECT_B);
+        cache.getOrFetch(OBJECT_A);
+
+        // Act
+        cache.getOrFetch(objectC);
+        cache.getOrFetch(OBJECT_B);
+
+        // Assert
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(2, stats.get("entries"));
+        assertEquals(20L, stats.get("sizeBytes"));
+        assertEquals(2L, stats.get("evictions"));
+        verify(storageBackend, times(4)).read(any());
+    }
+
+    @Test
+    void constructor_ShouldOnlyClearItsOwnSubdirectory() throws Exception {
+        // Arrange
+        Path shared = tempDir.resolve("shared");
+        Files.createDirectories(shared.resolve("objects"));
+        Path foreign = Files.writeString(shared.resolve("keep.txt"), "not ours");
+        Path stale = Files.writeString(shared.resolve("objects").resolve("stale"), "left by a previous run");
+
+        // Act
+        new DiskObjectCache(storageBackend, true, shared.toString(), 20, 15);
+
+        // Assert
+        assertTrue(Files.exists(foreign));
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.isDirectory(shared.resolve("objects")));
+    }
+
+    @Test
+    void isCached_ShouldNotReadFromStorage() throws Exception {
+        // Act
+        boolean before = cache.isCached(OBJECT_A);
+        cache.getOrFetch(OBJECT_A);
+        boolean after = cache.isCached(OBJECT_A);
+
+        // Assert
+        assertFalse(before);
+        assertTrue(after);
+        verify(storageBackend, times(1)).stat(OBJECT_A);
+    }
+
+    @Test
+    void getOrFetch_WithObjectLargerThanLimit_ShouldReturnNull() throws Exception {
+        // Arrange
+        DiskObjectCache smallCache = new DiskObjectCache(storageBackend, true,
+                tempDir.resolve("small").toString(), 20, 5);
+
+        // Act
+        CachedObject result = smallCache.getOrFetch(OBJECT_A);
+
+        // Assert
+        assertNull(result);
+        verify(storageBackend, never()).read(any());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.blogapp.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryStorageBackendTest {
+
+    private final InMemoryStorageBackend storageBackend = new InMemoryStorageBackend();
+
+    @Test
+    void write_ThenReadAndStat_ShouldReturnContent() throws Exception {
+        // Arrange
+        byte[] content = "hello world".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        storageBackend.write("posts/1/a.txt", new ByteArrayInputStream(content), content.length, "text/plain");
+
+        // Assert
+        ObjectMetadata metadata = storageBackend.stat("posts/1/a.txt").orElseThrow();
+        assertEquals(11, metadata.size());
+        assertEquals("text/plain", metadata.contentType());
+        assertEquals("5eb63bbbe01eeed093cb22bb8f5acdc3", metadata.etag());
+        try (InputStream in = storageBackend.read("posts/1/a.txt")) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertTrue(storageBackend.stat("posts/1/missing.txt").isEmpty());
+    }
+
+    @Test
+    void transfer_ShouldWriteRequestedRange() throws Exception {
+        // Arrange
+        write("a.txt", "hello world");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        storageBackend.transfer("a.txt", 6, 5, out);
+
+        // Assert
+        assertEquals("world", out.toString(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> storageBackend.transfer("a.txt", 6, 6, out));
+    }
+
+    @Test
+    void compose_ShouldConcatenateSources() throws Exception {
+        // Arrange
+        write("uploads/1/part-00001", "hello ");
+        write("uploads/1/part-00002", "world");
+
+        // Act
+        storageBackend.compose("posts/1/b.txt",
+                List.of("uploads/1/part-00001", "uploads/1/part-00002"), "text/plain");
+
+        // Assert
+        try (InputStream in = storageBackend.read("posts/1/b.txt")) {
+            assertEquals("hello world", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void listAndDelete_ShouldOnlyTouchMatchingObjects() throws Exception {
+        // Arrange
+        write("posts/1/a.txt", "a");
+        write("posts/2/b.txt", "bb");
+        write("avatars/1/c.txt", "c");
+
+        // Act
+        storageBackend.delete(List.of("posts/1/a.txt", "posts/9/missing.txt"));
+
+        // Assert
+        try (Stream<ObjectSummary> objects = storageBackend.list("posts/")) {
+            assertEquals(List.of(new ObjectSummary("posts/2/b.txt", 2, objectTime("posts/2/b.txt"))),
+                    objects.toList());
+        }
+    }
+
+    @Test
+    void faults_WithErrorRate_ShouldFailOperations() throws Exception {
+        // Arrange
+        write("a.txt", "a");
+        storageBackend.setFaults(new InMemoryStorageBackend.Faults(Duration.ZERO, Duration.ZERO, 0, 1.0, 42));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> storageBackend.stat("a.txt"));
+        assertThrows(IOException.class, () -> storageBackend.read("a.txt"));
+        assertEquals(2, storageBackend.getInjectedFailures());
+    }
+
+    @Test
+    void faults_WithLatencyAndBandwidth_ShouldSlowDownTransfers() throws Exception {
+        // Arrange
+        byte[] content = new byte[100 * 1024];
+        storageBackend.write("large.bin", new ByteArrayInputStream(content), content.length, "application/octet-stream");
+        storageBackend.setFaults(new InMemoryStorageBackend.Faults(
+                Duration.ofMillis(50), Duration.ZERO, 1024 * 1024, 0, 42));
+
+        // Act
+        long startedAt = System.nanoTime();
+        storageBackend.transfer("large.bin", 0, content.length, new ByteArrayOutputStream());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // Assert: 50 ms round trip plus roughly 100 ms for 100 KiB at 1 MiB/s
+        assertTrue(elapsed.compareTo(Duration.ofMillis(140)) >= 0, "Transfer took " + elapsed);
+    }
+
+    private void write(String objectName, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        storageBackend.write(objectName, new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+    }
+
+    private long objectTime(String objectName) throws IOException {
+        return storageBackend.stat(objectName).orElseThrow().lastModified();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.blogapp.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageBackendTest {
+
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', '0', '1', '2', '3' };
+
+    @TempDir
+    Path tempDir;
+
+    private LocalStorageBackend storageBackend;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageBackend = new LocalStorageBackend(tempDir.resolve("uploads").toString());
+    }
+
+    @Test
+    void write_ThenStatAndTransfer_ShouldRoundTrip() throws Exception {
+        // Arrange
+        storageBackend.write("posts/1/image.png", new ByteArrayInputStream(PNG), PNG.length, "image/png");
+
+        // Act
+        Optional<ObjectMetadata> stat = storageBackend.stat("posts/1/image.png");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storageBackend.transfer("posts/1/image.png", 8, 4, out);
+
+        // Assert
+        assertTrue(stat.isPresent());
+        assertEquals(PNG.length, stat.get().size());
+        assertEquals("image/png", stat.get().contentType());
+        assertEquals("0123", out.toString(StandardCharsets.US_ASCII));
+        assertEquals(Optional.of(tempDir.resolve("uploads/posts/1/image.png")),
+                storageBackend.localPath("posts/1/image.png"));
+    }
+
+    @Test
+    void write_WithShortStream_ShouldLeaveNoObject() {
+        // Act & Assert
+        assertThrows(IOException.class, () -> storageBackend.write(
+                "posts/1/image.png", new ByteArrayInputStream(PNG), PNG.length + 1, "image/png"));
+        assertTrue(storageBackend.localPath("posts/1/image.png").isEmpty());
+    }
+
+    @Test
+    void compose_ShouldConcatenateListedParts() throws Exception {
+        // Arrange
+        storageBackend.write("uploads/abc/1", new ByteArrayInputStream("hello ".getBytes()), 6, "application/octet-stream");
+        storageBackend.write("uploads/abc/2", new ByteArrayInputStream("world".getBytes()), 5, "application/octet-stream");
+        List<String> parts;
+        try (Stream<ObjectSummary> listing = storageBackend.list("uploads/abc/")) {
+            parts = listing.map(ObjectSummary::name).sorted().toList();
+        }
+
+        // Act
+        storageBackend.compose("posts/1/joined.txt", parts, "text/plain");
+        storageBackend.delete(parts);
+
+        // Assert
+        assertEquals(List.of("uploads/abc/1", "uploads/abc/2"), parts);
+        assertEquals("hello world", Files.readString(tempDir.resolve("uploads/posts/1/joined.txt")));
+        try (Stream<ObjectSummary> listing = storageBackend.list("uploads/abc/")) {
+            assertEquals(0, listing.count());
+        }
+    }
+
+    @Test
+    void stat_OutsideRoot_ShouldNotFindObject() throws Exception {
+        // Arrange
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+
+        // Act & Assert
+        assertTrue(storageBackend.stat("../secret.txt").isEmpty());
+        assertTrue(storageBackend.localPath("../secret.txt").isEmpty());
+        assertTrue(storageBackend.stat("posts/1/missing.png").isEmpty());
+    }
+}
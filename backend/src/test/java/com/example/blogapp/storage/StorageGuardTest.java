@@ -0,0 +1,88 @@
+package com.example.blogapp.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageGuardTest {
+
+    // Opens after 2 failures out of the last 2 calls, bulkhead of one call
+    private final StorageGuard storageGuard = new StorageGuard(2, 2, 50, 60_000, 1, 1, 10);
+
+    @Test
+    void call_WhenStorageKeepsFailing_ShouldFailFast() throws Exception {
+        // Arrange
+        failCall();
+        failCall();
+
+        // Act
+        StorageUnavailableException e = assertThrows(StorageUnavailableException.class,
+                () -> storageGuard.call("stat", () -> fail("Must not reach storage while the circuit is open")));
+
+        // Assert
+        assertTrue(e.getRetryAfterMillis() > 0);
+        assertEquals("OPEN", circuit().get("state"));
+    }
+
+    @Test
+    void call_WhenBulkheadFull_ShouldReject() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return storageGuard.call("read", () -> {
+                    started.countDown();
+                    release.await();
+                    return "done";
+                });
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        // Act
+        assertThrows(StorageUnavailableException.class, () -> storageGuard.call("read", () -> "second"));
+        release.countDown();
+
+        // Assert
+        assertEquals("done", slowCall.get(1, TimeUnit.SECONDS));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bulkhead = (Map<String, Object>) storageGuard.getStats().get("bulkhead");
+        assertEquals(1L, bulkhead.get("rejected"));
+        assertEquals(0, bulkhead.get("inFlight"));
+        assertEquals("CLOSED", circuit().get("state"));
+    }
+
+    @Test
+    void getStats_ShouldReportLatencyPerOperation() throws Exception {
+        // Act
+        storageGuard.call("stat", () -> "ok");
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> latency =
+                (Map<String, Map<String, Object>>) storageGuard.getStats().get("latency");
+        assertEquals(1L, latency.get("stat").get("count"));
+        assertEquals(1L, latency.get("stat").get("p99Millis"));
+    }
+
+    private void failCall() {
+        assertThrows(IOException.class, () -> storageGuard.call("stat", () -> {
+            throw new SocketTimeoutException("Read timed out");
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> circuit() {
+        return (Map<String, Object>) storageGuard.getStats().get("circuit");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.blogapp.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageTaskExecutorTest {
+
+    private final StorageTaskExecutor storageTaskExecutor = new StorageTaskExecutor(200);
+
+    @AfterEach
+    void tearDown() {
+        storageTaskExecutor.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRunTaskOnVirtualThread() throws Exception {
+        // Act
+        CompletableFuture<Boolean> virtual = storageTaskExecutor.submit(() -> Thread.currentThread().isVirtual());
+
+        // Assert
+        assertTrue(virtual.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_WhenTaskFails_ShouldCompleteExceptionally() {
+        // Act
+        CompletableFuture<String> failed = storageTaskExecutor.submit(() -> {
+            throw new IOException("Connection reset");
+        });
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void submit_WhenTaskTakesTooLong_ShouldTimeOutAndInterruptIt() throws Exception {
+        // Arrange
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<String> stalled = storageTaskExecutor.submit(() -> {
+            try {
+                Thread.sleep(10_000);
+                return "too late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> stalled.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+}
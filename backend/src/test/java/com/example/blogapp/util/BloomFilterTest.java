@@ -0,0 +1,50 @@
+package com.example.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_WithInsertedValues_ShouldNeverReturnFalseNegative() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Act & Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertEquals(10_000, filter.getInsertions());
+    }
+
+    @Test
+    void mightContain_WithUnknownValues_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, "False-positive rate too high: " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    void create_WithInvalidProbability_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // Opens at 50% failures over the last 4 calls, stays open for 1 second, 2 trial calls
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 50, 1000, 2, now::get);
+
+    @Test
+    void failures_BelowThreshold_ShouldKeepCircuitClosed() {
+        // Act
+        succeed(3);
+        fail(1);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void failures_AtThreshold_ShouldOpenAndRejectCalls() {
+        // Act
+        succeed(2);
+        fail(2);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(1000, circuitBreaker.getRemainingOpenMillis());
+        assertEquals(1L, circuitBreaker.getStats().get("rejected"));
+    }
+
+    @Test
+    void failures_BeforeMinimumCalls_ShouldNotOpen() {
+        // Act
+        fail(3);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void openCircuit_AfterOpenDuration_ShouldCloseWhenTrialsSucceed() {
+        // Arrange
+        fail(4);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Act & Assert
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire(), "Only two trial calls at a time");
+
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void openCircuit_WhenTrialFails_ShouldOpenAgain() {
+        // Arrange
+        fail(4);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2L, circuitBreaker.getStats().get("timesOpened"));
+    }
+
+    @Test
+    void onCancelled_ShouldReturnTrialPermission() {
+        // Arrange
+        fail(4);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // Act
+        circuitBreaker.onCancelled();
+
+        // Assert
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void window_ShouldForgetOldestOutcomes() {
+        // Arrange
+        fail(1);
+        succeed(3);
+
+        // Act: pushes the first failure out of the window
+        succeed(1);
+        fail(1);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(25.0, circuitBreaker.getStats().get("failureRatePercent"));
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentTypeDetectorTest {
+
+    @Test
+    void detect_WithKnownSignatures_ShouldReturnContentType() {
+        assertEquals(Optional.of("image/jpeg"), detect(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x00 }));
+        assertEquals(Optional.of("image/png"),
+                detect(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0x00 }));
+        assertEquals(Optional.of("image/gif"), detect("GIF89a...".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(Optional.of("image/webp"), detect("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(Optional.of("application/pdf"), detect("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void detect_WithUnknownOrTruncatedContent_ShouldReturnEmpty() {
+        assertTrue(detect("<svg onload=alert(1)>".getBytes(StandardCharsets.US_ASCII)).isEmpty());
+        assertTrue(detect("RIFF\0\0\0\0WAVE".getBytes(StandardCharsets.US_ASCII)).isEmpty());
+        assertTrue(detect(new byte[] { (byte) 0x89, 'P', 'N' }).isEmpty());
+        assertTrue(detect(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void detect_FromStream_ShouldNotConsumeHeader() throws Exception {
+        // Arrange
+        byte[] content = "%PDF-1.7 rest of the document".getBytes(StandardCharsets.US_ASCII);
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(content));
+
+        // Act
+        Optional<String> contentType = ContentTypeDetector.detect(in);
+
+        // Assert
+        assertEquals(Optional.of("application/pdf"), contentType);
+        assertArrayEquals(content, in.readAllBytes());
+    }
+
+    @Test
+    void extensionFor_ShouldMatchDetectedType() {
+        assertEquals(".jpg", ContentTypeDetector.extensionFor("image/jpeg"));
+        assertEquals(".webp", ContentTypeDetector.extensionFor("image/webp"));
+        assertEquals("", ContentTypeDetector.extensionFor("text/html"));
+    }
+
+    private static Optional<String> detect(byte[] header) {
+        return ContentTypeDetector.detect(header, header.length);
+    }
+}
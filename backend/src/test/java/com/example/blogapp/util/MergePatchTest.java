@@ -0,0 +1,101 @@
+package com.example.blogapp.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergePatchTest {
+
+    private static final Set<String> FIELDS = Set.of("title", "bio", "postDate", "status", "tags", "version");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void has_ShouldTellAbsentFromNullMembers() throws Exception {
+        // Act
+        MergePatch patch = MergePatch.of(json("{\"bio\": null}"), FIELDS);
+
+        // Assert
+        assertTrue(patch.has("bio"));
+        assertNull(patch.text("bio"));
+        assertFalse(patch.has("title"));
+    }
+
+    @Test
+    void of_WithUnknownField_ShouldThrow() throws Exception {
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MergePatch.of(json("{\"author\": {\"id\": \"x\"}}"), FIELDS));
+        assertEquals("Field 'author' cannot be patched", e.getMessage());
+    }
+
+    @Test
+    void of_WithNonObjectDocument_ShouldThrow() throws Exception {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> MergePatch.of(json("[]"), FIELDS));
+        assertThrows(IllegalArgumentException.class, () -> MergePatch.of(null, FIELDS));
+    }
+
+    @Test
+    void requiredText_WithNullOrBlank_ShouldThrow() throws Exception {
+        // Arrange
+        MergePatch cleared = MergePatch.of(json("{\"title\": null}"), FIELDS);
+        MergePatch blank = MergePatch.of(json("{\"title\": \" \"}"), FIELDS);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cleared.requiredText("title"));
+        assertThrows(IllegalArgumentException.class, () -> blank.requiredText("title"));
+    }
+
+    @Test
+    void text_WithLengthLimits_ShouldRejectValuesOutsideThem() throws Exception {
+        // Arrange
+        MergePatch patch = MergePatch.of(json("{\"title\": \"ab\", \"bio\": \"" + "x".repeat(501) + "\"}"), FIELDS);
+        MergePatch cleared = MergePatch.of(json("{\"bio\": null}"), FIELDS);
+
+        // Act & Assert
+        assertEquals("ab", patch.requiredText("title", 2, 255));
+        assertThrows(IllegalArgumentException.class, () -> patch.requiredText("title", 3, 255));
+        assertThrows(IllegalArgumentException.class, () -> patch.text("bio", 500));
+        assertNull(cleared.text("bio", 500));
+    }
+
+    @Test
+    void typedValues_ShouldBeConverted() throws Exception {
+        // Arrange
+        UUID tagId = UUID.randomUUID();
+        MergePatch patch = MergePatch.of(json("{\"postDate\": \"2024-05-01T10:15:30\", \"status\": \"PUBLISHED\","
+                + " \"tags\": [{\"id\": \"" + tagId + "\", \"name\": \"Java\"}], \"version\": 7}"), FIELDS);
+
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 15, 30), patch.dateTime("postDate"));
+        assertEquals(BlogPostStatus.PUBLISHED, patch.enumValue("status", BlogPostStatus.class));
+        assertEquals(List.of(tagId), patch.ids("tags"));
+        assertEquals(7L, patch.number("version"));
+    }
+
+    @Test
+    void typedValues_WhenMalformed_ShouldThrow() throws Exception {
+        // Arrange
+        MergePatch patch = MergePatch.of(json("{\"title\": 5, \"postDate\": \"yesterday\","
+                + " \"status\": \"LIVE\", \"tags\": {}, \"version\": \"1\"}"), FIELDS);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> patch.text("title"));
+        assertThrows(IllegalArgumentException.class, () -> patch.dateTime("postDate"));
+        assertThrows(IllegalArgumentException.class, () -> patch.enumValue("status", BlogPostStatus.class));
+        assertThrows(IllegalArgumentException.class, () -> patch.ids("tags"));
+        assertThrows(IllegalArgumentException.class, () -> patch.number("version"));
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+}
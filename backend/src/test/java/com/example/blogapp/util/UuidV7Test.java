@@ -0,0 +1,103 @@
+package com.example.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void next_ShouldSetVersionVariantAndTimestamp() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID uuid = UuidV7.next();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        // Not an upper bound: other tests move the shared clock ahead
+        assertTrue(UuidV7.timestampOf(uuid) >= before);
+    }
+
+    @Test
+    void next_WithinOneMillisecond_ShouldBeStrictlyIncreasing() {
+        // Arrange
+        long now = System.currentTimeMillis() + 60_000;
+        UUID previous = UuidV7.next(now);
+
+        // Act & Assert
+        for (int i = 0; i < 10_000; i++) {
+            UUID current = UuidV7.next(now);
+            assertTrue(previous.compareTo(current) < 0, previous + " should sort before " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    void next_WhenClockGoesBack_ShouldNotGoBack() {
+        // Arrange
+        long now = System.currentTimeMillis() + 120_000;
+        UUID first = UuidV7.next(now);
+
+        // Act
+        UUID second = UuidV7.next(now - 5_000);
+
+        // Assert
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(now, UuidV7.timestampOf(second));
+    }
+
+    @Test
+    void next_FromManyThreads_ShouldBeUnique() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 20_000;
+        Callable<List<UUID>> generate = () -> {
+            List<UUID> ids = new ArrayList<>(perThread);
+            for (int i = 0; i < perThread; i++) {
+                ids.add(UuidV7.next());
+            }
+            return ids;
+        };
+
+        // Act
+        Set<UUID> all = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(generate));
+            }
+            for (Future<List<UUID>> result : results) {
+                List<UUID> ids = result.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+                }
+                all.addAll(ids);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    void timestampOf_WithRandomUuid_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampOf(UUID.randomUUID()));
+    }
+}
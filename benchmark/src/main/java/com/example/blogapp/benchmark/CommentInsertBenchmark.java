@@ -0,0 +1,113 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.util.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Loads a comments-shaped table with random (v4) or time-ordered (v7)
+ * primary keys and prints the size of the primary key index afterwards.
+ * Needs a PostgreSQL server, by default the one from docker-compose; the
+ * table is dropped again after the run. One shot of 10M rows takes
+ * minutes, use {@code -p rows=1000000} for a quicker comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class CommentInsertBenchmark {
+    private static final String TABLE = "benchmark_comments";
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"jdbc:postgresql://localhost:5433/blogdb?reWriteBatchedInserts=true"})
+    public String jdbcUrl;
+
+    @Param({"postgres"})
+    public String user;
+
+    @Param({"postgres"})
+    public String password;
+
+    @Param({"v4", "v7"})
+    public String idType;
+
+    @Param({"10000000"})
+    public int rows;
+
+    private Connection connection;
+    private Supplier<UUID> ids;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        ids = "v7".equals(idType) ? UuidV7::next : UUID::randomUUID;
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id uuid PRIMARY KEY, post_id uuid NOT NULL, "
+                    + "user_id uuid NOT NULL, content text NOT NULL, created_at timestamp NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet sizes = statement.executeQuery("SELECT pg_relation_size('" + TABLE + "_pkey'), "
+                    + "pg_relation_size('" + TABLE + "')")) {
+                sizes.next();
+                System.out.printf("%n%s keys, %,d rows: primary key index %,d MB, table %,d MB%n",
+                        idType, rows, sizes.getLong(1) >> 20, sizes.getLong(2) >> 20);
+            }
+            statement.execute("DROP TABLE " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void insertComments() throws SQLException {
+        UUID postId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (id, post_id, user_id, content, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, postId);
+                insert.setObject(3, userId);
+                insert.setString(4, "Comment number " + i);
+                insert.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+}
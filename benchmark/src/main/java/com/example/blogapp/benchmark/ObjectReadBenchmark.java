@@ -0,0 +1,93 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.storage.CachedObject;
+import com.example.blogapp.storage.DiskObjectCache;
+import com.example.blogapp.storage.InMemoryStorageBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object reads against an in-memory storage stand-in with injected round
+ * trip latency, jitter and bandwidth, directly and through the disk cache.
+ * Sample time mode reports the percentiles, so the tail is visible
+ * (p0.99, p0.999) rather than only the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ObjectReadBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"0", "20"})
+    public int latencyMs;
+
+    @Param({"0", "50"})
+    public int jitterMs;
+
+    // 0 is unlimited
+    @Param({"0", "104857600"})
+    public long bytesPerSecond;
+
+    @Param({"262144"})
+    public int objectSize;
+
+    private InMemoryStorageBackend storageBackend;
+    private DiskObjectCache diskObjectCache;
+    private Path cacheDirectory;
+    private String objectName;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageBackend = new InMemoryStorageBackend();
+        objectName = "posts/1/" + UUID.randomUUID() + ".jpg";
+        storageBackend.write(objectName, new ByteArrayInputStream(new byte[objectSize]), objectSize, "image/jpeg");
+        // Faults only after the object is in place
+        storageBackend.setFaults(new InMemoryStorageBackend.Faults(
+                Duration.ofMillis(latencyMs), Duration.ofMillis(jitterMs), bytesPerSecond, 0, SEED));
+
+        cacheDirectory = Files.createTempDirectory("blogapp-benchmark-cache");
+        diskObjectCache = new DiskObjectCache(storageBackend, true, cacheDirectory.toString(),
+                64L * 1024 * 1024, 16L * 1024 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(cacheDirectory);
+    }
+
+    @Benchmark
+    public void readFromStorage() throws IOException {
+        storageBackend.transfer(objectName, 0, objectSize, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void readThroughDiskCache() throws IOException {
+        CachedObject cached = diskObjectCache.getOrFetch(objectName);
+        diskObjectCache.transfer(cached, 0, cached.size(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.blogapp.benchmark;
+
+import com.example.blogapp.config.PasswordConfig;
+import com.example.blogapp.config.SecurityConfig;
+import com.example.blogapp.entity.User;
+import com.example.blogapp.security.JwtAuthenticationFilter;
+import com.example.blogapp.security.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the security filters for a public GET /api/posts/{id}. The
+ * anonymous read goes through the lightweight public-read chain as served
+ * today; the "main chain" baseline sends the same request through the
+ * authenticated chain alone, which is what every request went through
+ * before the public-read chain existed. The Bearer variant is the price of
+ * an authenticated read. Run with {@code -prof gc} for bytes/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SecurityFilterChainBenchmark {
+    private static final String PATH = "/api/posts/0190a5b2-7c1e-7000-8000-000000000000";
+    private static final FilterChain ENDPOINT = (request, response) -> {
+    };
+
+    private AnnotationConfigWebApplicationContext context;
+    private FilterChainProxy servedChains;
+    private FilterChainProxy mainChainOnly;
+    private String bearerToken;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", "benchmark-secret-key-of-at-least-32-bytes",
+                "jwt.expiration", "3600000")));
+        context.register(Beans.class);
+        context.refresh();
+
+        servedChains = context.getBean("springSecurityFilterChain", FilterChainProxy.class);
+        SecurityFilterChain mainChain = context.getBean("securityFilterChain", SecurityFilterChain.class);
+        mainChainOnly = new FilterChainProxy(List.of(mainChain));
+        bearerToken = "Bearer " + context.getBean(JwtService.class).generateToken(Beans.USER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousReadPublicChain() throws IOException, ServletException {
+        return run(servedChains, new MockHttpServletRequest("GET", PATH));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousReadMainChain() throws IOException, ServletException {
+        return run(mainChainOnly, new MockHttpServletRequest("GET", PATH));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bearerRead() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.addHeader(HttpHeaders.AUTHORIZATION, bearerToken);
+        return run(servedChains, request);
+    }
+
+    private static MockHttpServletResponse run(FilterChainProxy proxy, MockHttpServletRequest request)
+            throws IOException, ServletException {
+        request.setServletPath(PATH);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.doFilter(request, response, ENDPOINT);
+        return response;
+    }
+
+    // Web MVC supplies the handler mapping introspector the path matchers need
+    @Configuration
+    @EnableWebMvc
+    @Import({ SecurityConfig.class, PasswordConfig.class })
+    static class Beans {
+        static final User USER = new User();
+
+        static {
+            USER.setUsername("reader");
+            USER.setEmail("reader@example.com");
+        }
+
+        @Bean
+        JwtService jwtService() {
+            return new JwtService();
+        }
+
+        // In memory, so the numbers are the filters' and not the database's
+        @Bean
+        UserDetailsService userDetailsService() {
+            return username -> USER;
+        }
+
+        @Bean
+        JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+            return new JwtAuthenticationFilter(jwtService, userDetailsService);
+        }
+    }
+}